@@ -13,6 +13,10 @@ class DeployOMMContractsPlugin implements Plugin<Project> {
         configureOMMEnv.setGroup("Configuration");
         configureOMMEnv.setDescription("Execute configuration for OMM env");
 
+        RunIndexKeeper runIndexKeeper = target.getTasks().create(RunIndexKeeper.getTaskName(), RunIndexKeeper.class);
+        runIndexKeeper.setGroup("Keeper");
+        runIndexKeeper.setDescription("Periodically advance asset indexes of reward distribution");
+
         target.getExtensions().create(ConfigurationExtension.getExtName(), ConfigurationExtension.class, target);
     }
 }
\ No newline at end of file
@@ -0,0 +1,147 @@
+package finance.omm.gradle.plugin
+
+import com.fasterxml.jackson.core.type.TypeReference
+import com.fasterxml.jackson.databind.ObjectMapper
+import finance.omm.gradle.plugin.utils.Network
+import foundation.icon.icx.Wallet
+import foundation.icon.jsonrpc.Address
+import foundation.icon.score.client.DefaultScoreClient
+import org.gradle.api.DefaultTask
+import org.gradle.api.model.ObjectFactory
+import org.gradle.api.provider.Property
+import org.gradle.api.tasks.Input
+import org.gradle.api.tasks.TaskAction
+
+/**
+ * keeper which periodically advances asset indexes of reward distribution contract, so that users don't pay index
+ * calculation on their first action of a block
+ */
+class RunIndexKeeper extends DefaultTask {
+
+    private static final String REWARDS = "rewards";
+
+    private final Property<String> env;
+    private final Property<String> keystore;
+    private final Property<String> password;
+    private final Property<String> addressesFilePath;
+    private final Property<Long> interval;
+    private final Property<Integer> iterations;
+
+    private DefaultICONClient client;
+    private Wallet wallet;
+
+    public static String getTaskName() {
+        return "runIndexKeeper";
+    }
+
+    RunIndexKeeper() {
+        super();
+        ObjectFactory objectFactory = getProject().getObjects();
+        this.env = objectFactory.property(String.class);
+        this.keystore = objectFactory.property(String.class);
+        this.password = objectFactory.property(String.class);
+        this.addressesFilePath = objectFactory.property(String.class);
+        this.interval = objectFactory.property(Long.class).convention(3600L);
+        this.iterations = objectFactory.property(Integer.class).convention(0);
+    }
+
+    @Input
+    Property<String> getEnv() {
+        return env;
+    }
+
+    @Input
+    Property<String> getKeystore() {
+        return keystore;
+    }
+
+    @Input
+    Property<String> getPassword() {
+        return password;
+    }
+
+    @Input
+    Property<String> getContractAddressFile() {
+        return addressesFilePath;
+    }
+
+    /**
+     * seconds to wait between two index updates
+     */
+    @Input
+    Property<Long> getInterval() {
+        return interval;
+    }
+
+    /**
+     * number of index updates to send, 0 to run until the task is stopped
+     */
+    @Input
+    Property<Integer> getIterations() {
+        return iterations;
+    }
+
+    void setEnv(String env) {
+        this.env.set(env)
+    }
+
+    void setKeystore(String keystore) {
+        this.keystore.set(keystore);
+    }
+
+    void setPassword(String password) {
+        this.password.set(password)
+    }
+
+    void setContractAddressFile(String contractAddress) {
+        this.addressesFilePath.set(contractAddress)
+    }
+
+    void setInterval(Long interval) {
+        this.interval.set(interval)
+    }
+
+    void setIterations(Integer iterations) {
+        this.iterations.set(iterations)
+    }
+
+    @TaskAction
+    void run() throws Exception {
+        Address rewards = loadAddresses().get(REWARDS);
+        if (rewards == null) {
+            throw new RuntimeException(REWARDS + " address not found in " + this.addressesFilePath.get())
+        }
+
+        client = new DefaultICONClient(Network.getNetwork(this.env.get()))
+        this.wallet = DefaultScoreClient.wallet(this.keystore.get(), this.password.get());
+
+        int count = 0;
+        while (iterations.get() <= 0 || count < iterations.get()) {
+            count++;
+            logger.lifecycle("updating asset indexes of $rewards ($count)")
+            try {
+                client.send(wallet, rewards, BigInteger.ZERO, "updateAllAssetIndexes", new HashMap<String, Object>(),
+                        DefaultScoreClient.DEFAULT_RESULT_TIMEOUT);
+            } catch (RuntimeException e) {
+                logger.warn("failed to update asset indexes :: $e.message")
+            }
+            if (iterations.get() <= 0 || count < iterations.get()) {
+                Thread.sleep(interval.get() * 1000)
+            }
+        }
+    }
+
+    private Map<String, Address> loadAddresses() {
+        logger.lifecycle('loading addresses...')
+        InputStream is = this.getClass()
+                .getClassLoader()
+                .getResourceAsStream(this.addressesFilePath.get());
+        if (is == null) {
+            throw new RuntimeException(this.addressesFilePath.get() + " file not found")
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        return objectMapper.readValue(is, new TypeReference<HashMap<String, Address>>() {
+        });
+    }
+}
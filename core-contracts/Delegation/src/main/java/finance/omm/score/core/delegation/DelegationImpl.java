@@ -220,7 +220,8 @@ public class DelegationImpl extends AddressProvider implements Delegation {
     }
 
     @External
-    public void onKick(Address user, BigInteger bOMMUserBalance, @Optional byte[] data) {
+    public void onKick(Address user, BigInteger bOMMUserBalance, @Optional byte[] data,
+            @Optional BigInteger bOMMTotalSupply) {
         onlyOrElseThrow(Contracts.BOOSTED_OMM,
                 DelegationException.unauthorized("Only bOMM contract is allowed to call onKick method"));
         if (!bOMMUserBalance.equals(BigInteger.ZERO)) {
@@ -231,15 +232,26 @@ public class DelegationImpl extends AddressProvider implements Delegation {
     }
 
     @External
-    public void onBalanceUpdate(Address user) {
+    public void onKickBatch(Address[] users, @Optional byte[] data) {
+        onlyOrElseThrow(Contracts.BOOSTED_OMM,
+                DelegationException.unauthorized("Only bOMM contract is allowed to call onKickBatch method"));
+        for (Address user : users) {
+            updateUserDelegations(null, user, BigInteger.ZERO);
+            UserKicked(user, data);
+        }
+    }
+
+    @External
+    public void onBalanceUpdate(Address user, @Optional BigInteger bOMMUserBalance,
+            @Optional BigInteger bOMMTotalSupply) {
         onlyOrElseThrow(Contracts.BOOSTED_OMM,
                 DelegationException.unauthorized("Only bOMM contract is allowed to call onBalanceUpdate method"));
-        updateUserDelegations(null, user, null);
+        updateUserDelegations(null, user, bOMMUserBalance);
     }
 
     @External
     public void updateDelegations(@Optional PrepDelegations[] _delegations, @Optional Address _user) {
-        Address bOMMAddress = getAddress(Contracts.BOOSTED_OMM.getKey());
+        Address bOMMAddress = getContractAddress(Contracts.BOOSTED_OMM);
         Address currentUser;
         Address caller = currentUser = Context.getCaller();
         if (_user != null && caller.equals(bOMMAddress)) {
@@ -406,7 +418,7 @@ public class DelegationImpl extends AddressProvider implements Delegation {
         BigInteger userWorkingBalance = getWorkingBalance(_user);
         BigInteger workingTotal = getWorkingTotalSupply();
 
-        Address lendingPoolCore = getAddress(Contracts.LENDING_POOL_CORE.getKey());
+        Address lendingPoolCore = getContractAddress(Contracts.LENDING_POOL_CORE);
 
         BigInteger sicxIcxRate = call(BigInteger.class, Contracts.STAKING, "getTodayRate");
         BigInteger coresICXBalance = call(BigInteger.class, Contracts.sICX, "balanceOf", lendingPoolCore);
@@ -510,11 +522,11 @@ public class DelegationImpl extends AddressProvider implements Delegation {
     }
 
     public void call(Contracts contract, String method, Object... params) {
-        Context.call(getAddress(contract.getKey()), method, params);
+        Context.call(getContractAddress(contract), method, params);
     }
 
     public <K> K call(Class<K> kClass, Contracts contract, String method, Object... params) {
-        return Context.call(kClass, getAddress(contract.getKey()), method, params);
+        return Context.call(kClass, getContractAddress(contract), method, params);
     }
 
 
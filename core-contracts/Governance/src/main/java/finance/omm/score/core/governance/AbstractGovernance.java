@@ -123,34 +123,34 @@ public abstract class AbstractGovernance extends AddressProvider implements Gove
         switch (contract) {
             case LENDING_POOL_CORE:
                 return clazz.cast(new LendingPoolCoreClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
             case REWARDS:
                 return clazz.cast(new RewardDistributionImplClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
             case REWARD_WEIGHT_CONTROLLER:
                 return clazz.cast(new RewardWeightControllerClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
             case OMM_TOKEN:
                 return clazz.cast(new OMMTokenClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
             case FEE_PROVIDER:
                 return clazz.cast(new FeeProviderClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
             case STAKED_LP:
                 return clazz.cast(new StakedLPClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
             case DAO_FUND:
                 return clazz.cast(new DAOFundClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
             case BOOSTED_OMM:
                 return clazz.cast(new BoostedTokenClient(
-                        this.getAddress(contract.getKey())));
+                        this.getContractAddress(contract)));
         }
         return null;
     }
 
     public void call(Contracts contract, String method, Object... params) {
-        Context.call(getAddress(contract.getKey()), method, params);
+        Context.call(getContractAddress(contract), method, params);
     }
 
 }
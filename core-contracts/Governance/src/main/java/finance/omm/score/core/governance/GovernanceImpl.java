@@ -142,6 +142,14 @@ public class GovernanceImpl extends AbstractGovernance {
         rewardDistribution.disableRewardClaim();
     }
 
+    @External
+    public void enableWorkerRewardPull() {
+        onlyOwnerOrElseThrow(GovernanceException.notOwner());
+
+        RewardDistributionImpl rewardDistribution = getInstance(RewardDistributionImpl.class, Contracts.REWARDS);
+        rewardDistribution.enableWorkerRewardPull();
+    }
+
     @External
     public void addPools(AssetConfig[] _assetConfigs) {
         onlyOwnerOrElseThrow(GovernanceException.notOwner());
@@ -17,6 +17,7 @@ import finance.omm.score.core.reward.distribution.db.UserClaimedRewards;
 import finance.omm.score.core.reward.distribution.exception.RewardDistributionException;
 import finance.omm.score.core.reward.distribution.legacy.LegacyRewards;
 import finance.omm.score.core.reward.distribution.model.Asset;
+import finance.omm.score.core.reward.distribution.model.UserAssetState;
 import finance.omm.utils.constants.TimeConstants;
 import finance.omm.utils.constants.TimeConstants.Timestamp;
 import finance.omm.utils.db.EnumerableDictDB;
@@ -25,13 +26,13 @@ import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
 import score.Address;
-import score.BranchDB;
 import score.Context;
 import score.DictDB;
 import score.VarDB;
 import score.annotation.EventLog;
 import score.annotation.External;
 import score.annotation.Optional;
+import scorex.util.ArrayList;
 import scorex.util.HashMap;
 
 public abstract class AbstractRewardDistribution extends AddressProvider implements RewardDistribution {
@@ -51,8 +52,6 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
 
     //asset address => total
     public final DictDB<Address, BigInteger> workingTotal;
-    //user address = > asset address => total
-    public final BranchDB<Address, DictDB<Address, BigInteger>> workingBalance;
     //    public final VarDB<BigInteger> weight;
     protected final EnumerableDictDB<Address, String> platformRecipientMap = new EnumerableDictDB<>(
             "platformRecipient",
@@ -70,7 +69,6 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
     public AbstractRewardDistribution(Address addressProvider) {
         super(addressProvider, false);
         assets = new Assets("assets-temp");
-        workingBalance = Context.newBranchDB("workingBalance", BigInteger.class);
         workingTotal = Context.newDictDB("workingTotal", BigInteger.class);
     }
 
@@ -82,12 +80,15 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
 
     @External(readonly = true)
     public Map<String, BigInteger> getWorkingBalances(Address user) {
-        Map<String, String> assets = this.assets.getAssetName(this.platformRecipientMap.keySet());
+        List<Address> platformRecipients = this.platformRecipientMap.keySet();
+        Map<String, String> assets = this.assets.getAssetName(platformRecipients);
         Map<String, BigInteger> response = new HashMap<>();
-        DictDB<Address, BigInteger> balances = workingBalance.at(user);
-        for (Map.Entry<String, String> entry : assets.entrySet()) {
-            BigInteger userWorkingBalance = balances.getOrDefault(Address.fromString(entry.getKey()), BigInteger.ZERO);
-            response.put(entry.getValue(), userWorkingBalance);
+        for (String name : assets.values()) {
+            response.put(name, BigInteger.ZERO);
+        }
+        for (Address assetAddr : this.assets.getPositionAssets(user, platformRecipients)) {
+            UserAssetState state = this.assets.getUserAssetState(user, assetAddr);
+            response.put(assets.get(assetAddr.toString()), state.workingBalance);
         }
         return response;
     }
@@ -151,15 +152,34 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
     public Map<String, ?> getRewards(Address _user) {
         Map<String, Object> response = new HashMap<>();
         BigInteger totalRewards = BigInteger.ZERO;
+        BigInteger timeInSeconds = TimeConstants.getBlockTimestamp().divide(TimeConstants.SECOND);
 
-        List<Address> assets = this.assets.keySet(this.platformRecipientMap.keySet());
-        for (Address assetAddr : assets) {
-            Asset asset = this.assets.get(assetAddr);
-            if (asset == null) {
-                throw RewardDistributionException.invalidAsset("Asset is null (" + assetAddr + ")");
+        // asset records are read once, position bitmap selects assets of which reward is calculated
+        List<Address> platformRecipients = this.platformRecipientMap.keySet();
+        List<Asset> assetList = this.assets.values();
+        BigInteger positions = this.assets.getPositions(_user);
+        List<Address> positionAssets = new ArrayList<>();
+        int size = assetList.size();
+        for (int i = 0; i < size; i++) {
+            Address assetAddr = assetList.get(i).address;
+            if (positions.testBit(i) && !platformRecipients.contains(assetAddr)) {
+                positionAssets.add(assetAddr);
+            }
+        }
+        Map<Address, BigInteger> integrateIndexes = calculateIntegrateIndexes(positionAssets, timeInSeconds);
+
+        for (Asset asset : assetList) {
+            if (platformRecipients.contains(asset.address)) {
+                continue;
             }
 
-            BigInteger reward = getUserReward(assetAddr, _user);
+            BigInteger reward = BigInteger.ZERO;
+            if (positionAssets.contains(asset.address)) {
+                BigInteger newIndex = this.assets.getAssetIndex(asset.address)
+                        .add(integrateIndexes.getOrDefault(asset.address, BigInteger.ZERO));
+                UserAssetState state = this.assets.getUserAssetState(_user, asset.address);
+                reward = calculateReward(state.workingBalance, newIndex, state.index).add(state.accrued);
+            }
             Map<String, BigInteger> entityMap = (Map<String, BigInteger>) response.get(asset.type);
             if (entityMap == null) {
                 entityMap = new HashMap<>() {{
@@ -174,7 +194,6 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
         }
 
         response.put("total", totalRewards);
-        BigInteger timeInSeconds = TimeConstants.getBlockTimestamp().divide(TimeConstants.SECOND);
         response.put("now", timeInSeconds);
 
         return response;
@@ -195,13 +214,48 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
         if (!isRewardClaimEnabled()) {
             throw RewardDistributionException.rewardClaimDisabled();
         }
+        List<Address> assets = this.assets.keySet(this.platformRecipientMap.keySet());
+        _claimRewards(_user, this.assets.filterPositions(this.assets.loadPositions(_user), assets));
+    }
+
+    /**
+     * claim rewards of given assets only, assets in which user has no working balance and no accrued rewards are
+     * skipped
+     *
+     * @param _user   - user address
+     * @param _assets - list of asset addresses
+     */
+    @External
+    public void claimAssetRewards(Address _user, Address[] _assets) {
+        onlyOrElseThrow(Contracts.LENDING_POOL, RewardDistributionException.unauthorized(
+                "Only Lending pool contract is allowed to call claimAssetRewards method"));
+        if (!isRewardClaimEnabled()) {
+            throw RewardDistributionException.rewardClaimDisabled();
+        }
+        List<Address> platformRecipients = this.platformRecipientMap.keySet();
+        List<Address> assets = new ArrayList<>();
+        for (Address assetAddr : _assets) {
+            if (this.assets.get(assetAddr) == null || platformRecipients.contains(assetAddr)) {
+                throw RewardDistributionException.invalidAsset("Asset is null (" + assetAddr + ")");
+            }
+            if (!assets.contains(assetAddr)) {
+                assets.add(assetAddr);
+            }
+        }
+        _claimRewards(_user, this.assets.filterPositions(this.assets.loadPositions(_user), assets));
+    }
+
+    private void _claimRewards(Address _user, List<Address> assets) {
+        if (assets.isEmpty()) {
+            return;
+        }
         Map<String, BigInteger> boostedBalance = getBoostedBalance(_user);
         BigInteger bOMMUserBalance = boostedBalance.get("bOMMUserBalance");
         BigInteger bOMMTotalSupply = boostedBalance.get("bOMMTotalSupply");
 
         BigInteger accruedReward = BigInteger.ZERO;
-        List<Address> assets = this.assets.keySet(this.platformRecipientMap.keySet());
         BigInteger toTimestampInSeconds = getBlockTimestampInSecond();
+        refreshAssetIndexes(assets, toTimestampInSeconds);
         for (Address assetAddr : assets) {
             Asset asset = this.assets.get(assetAddr);
             if (asset == null) {
@@ -211,13 +265,15 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
             workingBalance.bOMMUserBalance = bOMMUserBalance;
             workingBalance.bOMMTotalSupply = bOMMTotalSupply;
 
-            BigInteger newReward = updateIndexes(assetAddr, _user, toTimestampInSeconds);
+            UserAssetState state = this.assets.getUserAssetState(_user, assetAddr);
+            BigInteger newReward = updateIndexes(state, assetAddr, _user, toTimestampInSeconds);
 
             accruedReward = accruedReward.add(newReward);
 
-            this.assets.setAccruedRewards(_user, assetAddr, null);
+            state.accrued = BigInteger.ZERO;
 
-            updateWorkingBalance(workingBalance);
+            updateWorkingBalance(state, workingBalance);
+            this.assets.setUserAssetState(_user, assetAddr, state);
         }
 
         if (BigInteger.ZERO.equals(accruedReward)) {
@@ -235,40 +291,35 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
         return userClaimedRewards.getOrDefault(user, BigInteger.ZERO);
     }
 
-    protected BigInteger updateIndexes(Address assetAddr, Address user, BigInteger toTimestampInSeconds) {
-        BigInteger userBalance = this.workingBalance.at(user).getOrDefault(assetAddr, BigInteger.ZERO);
-
-        BigInteger userIndex = this.assets.getUserIndex(assetAddr, user);
+    /**
+     * accrue rewards of user to latest asset index, only given state is updated, caller should store the state
+     *
+     * @param state                - reward state of user for the asset
+     * @param assetAddr            - asset address
+     * @param user                 - user address
+     * @param toTimestampInSeconds - timestamp in seconds
+     * @return accrued rewards of user for the asset
+     */
+    protected BigInteger updateIndexes(UserAssetState state, Address assetAddr, Address user,
+            BigInteger toTimestampInSeconds) {
+        BigInteger userIndex = state.index;
 
         BigInteger newIndex = this.getAssetIndex(assetAddr, toTimestampInSeconds, false);
 
-        BigInteger accruedRewards = this.assets.getAccruedRewards(user, assetAddr);
         if (newIndex.equals(userIndex)) {
-            return accruedRewards;
+            return state.accrued;
         }
 
-        BigInteger totalReward = calculateReward(userBalance, newIndex, userIndex).add(accruedRewards);
+        BigInteger totalReward = calculateReward(state.workingBalance, newIndex, userIndex).add(state.accrued);
 
-        this.assets.setAccruedRewards(user, assetAddr, totalReward);
-        this.assets.setUserIndex(assetAddr, user, newIndex);
+        state.accrued = totalReward;
+        state.index = newIndex;
         this.UserIndexUpdated(user, assetAddr, userIndex, newIndex);
 
         return totalReward;
     }
 
 
-    protected BigInteger getUserReward(Address assetAddr, Address user) {
-        BigInteger userBalance = this.workingBalance.at(user).getOrDefault(assetAddr, BigInteger.ZERO);
-
-        BigInteger userIndex = this.assets.getUserIndex(assetAddr, user);
-
-        BigInteger accruedRewards = this.assets.getAccruedRewards(user, assetAddr);
-
-        BigInteger newIndex = this.getAssetIndex(assetAddr, TimeConstants.getBlockTimestampInSecond(), true);
-
-        return calculateReward(userBalance, newIndex, userIndex).add(accruedRewards);
-    }
-
     protected BigInteger getAssetIndex(Address assetAddr, BigInteger toTimestampInSeconds, Boolean readonly) {
         BigInteger totalSupply = this.workingTotal.getOrDefault(assetAddr, BigInteger.ZERO);
 
@@ -299,6 +350,81 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
         return newIndex;
     }
 
+    /**
+     * update indexes of given assets with a single call to reward weight controller, subsequent
+     * {@link #getAssetIndex(Address, BigInteger, Boolean)} calls for same timestamp reuse stored index
+     *
+     * @param assetAddrs           - list of asset addresses
+     * @param toTimestampInSeconds - timestamp in seconds
+     */
+    protected void refreshAssetIndexes(List<Address> assetAddrs, BigInteger toTimestampInSeconds) {
+        Map<Address, BigInteger> integrateIndexes = calculateIntegrateIndexes(assetAddrs, toTimestampInSeconds);
+        for (Address assetAddr : assetAddrs) {
+            BigInteger integrateIndex = integrateIndexes.get(assetAddr);
+            if (integrateIndex == null) {
+                continue;
+            }
+            BigInteger oldIndex = this.assets.getAssetIndex(assetAddr);
+            BigInteger newIndex = oldIndex.add(integrateIndex);
+            if (!oldIndex.equals(newIndex)) {
+                this.assets.setAssetIndex(assetAddr, newIndex);
+                this.AssetIndexUpdated(assetAddr, oldIndex, newIndex);
+            }
+            this.assets.setIndexUpdatedTimestamp(assetAddr, toTimestampInSeconds);
+        }
+    }
+
+    /**
+     * index increments of given assets up to given timestamp with a single call to reward weight controller, nothing
+     * is stored
+     *
+     * @param assetAddrs           - list of asset addresses
+     * @param toTimestampInSeconds - timestamp in seconds
+     * @return index increment of assets not updated at given timestamp, assets already updated are left out
+     */
+    protected Map<Address, BigInteger> calculateIntegrateIndexes(List<Address> assetAddrs,
+            BigInteger toTimestampInSeconds) {
+        TimeConstants.checkIsValidTimestamp(toTimestampInSeconds, Timestamp.SECONDS);
+        List<Address> staleAssets = new ArrayList<>();
+        List<BigInteger> totalSupplies = new ArrayList<>();
+        List<BigInteger> fromTimestamps = new ArrayList<>();
+        BigInteger startTimestamp = bOMMRewardStartDate.get();
+        for (Address assetAddr : assetAddrs) {
+            BigInteger lastUpdateTimestamp = this.assets.getIndexUpdateTimestamp(assetAddr);
+            if (lastUpdateTimestamp == null) {
+                lastUpdateTimestamp = startTimestamp;
+            }
+            if (toTimestampInSeconds.equals(lastUpdateTimestamp)) {
+                continue;
+            }
+            staleAssets.add(assetAddr);
+            totalSupplies.add(this.workingTotal.getOrDefault(assetAddr, BigInteger.ZERO));
+            fromTimestamps.add(lastUpdateTimestamp);
+        }
+        Map<Address, BigInteger> result = new HashMap<>();
+        int size = staleAssets.size();
+        if (size == 0) {
+            return result;
+        }
+
+        Address[] assetArray = new Address[size];
+        BigInteger[] totalSupplyArray = new BigInteger[size];
+        BigInteger[] fromArray = new BigInteger[size];
+        for (int i = 0; i < size; i++) {
+            assetArray[i] = staleAssets.get(i);
+            totalSupplyArray[i] = totalSupplies.get(i);
+            fromArray[i] = fromTimestamps.get(i);
+        }
+
+        Map<String, BigInteger> integrateIndexes = call(Map.class, Contracts.REWARD_WEIGHT_CONTROLLER,
+                "calculateIntegrateIndexes", assetArray, totalSupplyArray, fromArray, toTimestampInSeconds);
+
+        for (Address assetAddr : assetArray) {
+            result.put(assetAddr, integrateIndexes.getOrDefault(assetAddr.toString(), BigInteger.ZERO));
+        }
+        return result;
+    }
+
     protected BigInteger getIndexUpdateTimestamp(Address assetAddr) {
         BigInteger lastUpdateTimestamp = this.assets.getIndexUpdateTimestamp(assetAddr);
         if (lastUpdateTimestamp == null) {
@@ -329,7 +455,7 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
         if (poolId == null || poolId.compareTo(BigInteger.ZERO) <= 0) {
             response = Context.call(Map.class, asset, "getPrincipalSupply", user);
         } else {
-            response = Context.call(Map.class, getAddress(Contracts.STAKED_LP.getKey()),
+            response = Context.call(Map.class, getContractAddress(Contracts.STAKED_LP),
                     "getLPStakedSupply", poolId, user);
         }
 
@@ -342,20 +468,24 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
 
 
     protected Map<String, BigInteger> getBoostedBalance(Address user) {
-        BigInteger bOMMUserBalance = call(BigInteger.class, Contracts.BOOSTED_OMM, "balanceOf", user);
-        return Map.of("bOMMUserBalance", bOMMUserBalance, "bOMMTotalSupply", getBOMMTotalSupply());
+        return call(Map.class, Contracts.BOOSTED_OMM, "getBalanceAndSupply", user);
     }
 
     protected BigInteger getBOMMTotalSupply() {
         return call(BigInteger.class, Contracts.BOOSTED_OMM, "totalSupply");
     }
 
-    protected void updateWorkingBalance(WorkingBalance balance) {
+    /**
+     * update working balance of user in given state and working total of the asset, caller should store the state
+     *
+     * @param state   - reward state of user for the asset
+     * @param balance - user balance, total supply and bOMM balances
+     */
+    protected void updateWorkingBalance(UserAssetState state, WorkingBalance balance) {
         Address assetAddr = balance.assetAddr;
         Address userAddr = balance.userAddr;
-        var userWorkingBalance = this.workingBalance.at(userAddr);
 
-        BigInteger currentWorkingBalance = userWorkingBalance.getOrDefault(assetAddr, BigInteger.ZERO);
+        BigInteger currentWorkingBalance = state.workingBalance;
 
         BigInteger userBalance = balance.userBalance;
         BigInteger totalSupply = balance.totalSupply;
@@ -374,7 +504,7 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
 
         newWorkingBalance = userBalance.min(newWorkingBalance);
 
-        userWorkingBalance.set(assetAddr, newWorkingBalance);
+        state.workingBalance = newWorkingBalance;
 
         BigInteger workingTotal = this.workingTotal.getOrDefault(assetAddr, BigInteger.ZERO)
                 .add(newWorkingBalance)
@@ -427,11 +557,11 @@ public abstract class AbstractRewardDistribution extends AddressProvider impleme
     }
 
     public void call(Contracts contract, String method, Object... params) {
-        Context.call(getAddress(contract.getKey()), method, params);
+        Context.call(getContractAddress(contract), method, params);
     }
 
     public <K> K call(Class<K> kClass, Contracts contract, String method, Object... params) {
-        return Context.call(kClass, getAddress(contract.getKey()), method, params);
+        return Context.call(kClass, getContractAddress(contract), method, params);
     }
 
 }
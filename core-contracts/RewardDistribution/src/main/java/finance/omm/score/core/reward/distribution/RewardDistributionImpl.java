@@ -2,6 +2,7 @@ package finance.omm.score.core.reward.distribution;
 
 import static finance.omm.utils.constants.TimeConstants.SECOND;
 import static finance.omm.utils.math.MathUtils.HUNDRED_PERCENT;
+import static finance.omm.utils.math.MathUtils.ICX;
 import static finance.omm.utils.math.MathUtils.convertToExa;
 import static finance.omm.utils.math.MathUtils.exaDivide;
 import static finance.omm.utils.math.MathUtils.exaMultiply;
@@ -10,13 +11,16 @@ import finance.omm.libs.address.Contracts;
 import finance.omm.libs.structs.AssetConfig;
 import finance.omm.libs.structs.DistPercentage;
 import finance.omm.libs.structs.TypeWeightStruct;
+import finance.omm.libs.structs.UserAssetInput;
 import finance.omm.libs.structs.UserDetails;
 import finance.omm.libs.structs.WeightStruct;
 import finance.omm.libs.structs.WorkingBalance;
 import finance.omm.score.core.reward.distribution.exception.RewardDistributionException;
 import finance.omm.score.core.reward.distribution.model.Asset;
+import finance.omm.score.core.reward.distribution.model.UserAssetState;
 import finance.omm.utils.constants.TimeConstants;
 import finance.omm.utils.constants.TimeConstants.Timestamp;
+import finance.omm.utils.db.MigrationCursor;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +31,7 @@ import score.VarDB;
 import score.annotation.EventLog;
 import score.annotation.External;
 import score.annotation.Optional;
+import scorex.util.ArrayList;
 import scorex.util.HashMap;
 
 public class RewardDistributionImpl extends AbstractRewardDistribution {
@@ -35,6 +40,9 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
     public static final String DAY = "day";
 
     public static final String IS_INITIALIZED = "isInitialized";
+    // scale of worker reward per share, worker token supply is in 10^18 units so ICX alone truncates small rewards
+    public static final BigInteger WORKER_REWARD_PRECISION = ICX.multiply(ICX);
+    public static final int MAX_MIGRATION_BATCH_SIZE = 100;
 
 
     public final VarDB<BigInteger> distributedDay = Context.newVarDB(DAY, BigInteger.class);
@@ -48,6 +56,27 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
             "bOMM-migration-is-legacy-reward-calculated",
             Boolean.class);
 
+    // worker rewards are accrued for holders to pull once worker token settles transfers through rewards contract
+    public final VarDB<Boolean> isWorkerRewardPullEnabled = Context.newVarDB("worker-reward-pull-enabled",
+            Boolean.class);
+    // set by first call of worker token to onWorkerTokenTransfer, pull can not be enabled before
+    public final VarDB<Boolean> isWorkerTokenHookLive = Context.newVarDB("worker-token-hook-live", Boolean.class);
+    // cumulative OMM reward per worker token, multiplied by WORKER_REWARD_PRECISION
+    public final VarDB<BigInteger> workerRewardPerShare = Context.newVarDB("worker-reward-per-share",
+            BigInteger.class);
+    // reward multiplied by WORKER_REWARD_PRECISION not yet added to reward per share, carried to next accrual
+    public final VarDB<BigInteger> workerRewardRemainder = Context.newVarDB("worker-reward-remainder",
+            BigInteger.class);
+    // worker token holder -> reward per share at last settlement
+    public final DictDB<Address, BigInteger> workerRewardPerSharePaid = Context.newDictDB(
+            "worker-reward-per-share-paid", BigInteger.class);
+    // worker token holder -> settled rewards not claimed yet
+    public final DictDB<Address, BigInteger> workerAccruedRewards = Context.newDictDB("worker-accrued-rewards",
+            BigInteger.class);
+
+    public final MigrationCursor<Address> userMigration = new MigrationCursor<>("bOMM-migration-users",
+            Address.class);
+
     @Deprecated
     public final DictDB<String, BigInteger> tokenDistTracker = Context.newDictDB("tokenDistTracker",
             BigInteger.class);
@@ -89,7 +118,7 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
     @Override
     @External(readonly = true)
     public Map<String, BigInteger> getIndexes(Address _user, Address _asset) {
-        return Map.of("userIndex", this.assets.getUserIndex(_asset, _user)
+        return Map.of("userIndex", this.assets.getUserAssetState(_user, _asset).index
                 , "assetIndex", this.assets.getAssetIndex(_asset));
     }
 
@@ -328,7 +357,9 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
         BigInteger toTimestamp = (BigInteger) precomputeInfo.get("timestamp");
 
         distributedDay.set(newDay);
-        call(Contracts.OMM_TOKEN, "mint", amountToMint);
+        call(Contracts.REWARD_WEIGHT_CONTROLLER, "refreshWeightSnapshot");
+        Address ommAddress = getContractAddress(Contracts.OMM_TOKEN);
+        call(ommAddress, "mint", amountToMint);
         OmmTokenMinted(newDay, amountToMint, newDay.subtract(day));
 
         BigInteger transferToContract = BigInteger.ZERO;
@@ -339,11 +370,16 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
             BigInteger accruedRewards = calculateReward(HUNDRED_PERCENT, newIndex, oldIndex);
             transferToContract = transferToContract.add(accruedRewards);
 
-            if (Contracts.WORKER_TOKEN.getKey().equals(platformRecipientMap.get(key))) {
-                distributeWorkerToken(accruedRewards);
-            } else if (Contracts.DAO_FUND.getKey().equals(platformRecipientMap.get(key))) {
-                Address daoFundAddress = getAddress(Contracts.DAO_FUND.getKey());
-                call(Contracts.OMM_TOKEN, "transfer", daoFundAddress, accruedRewards);
+            String recipient = platformRecipientMap.get(key);
+            if (Contracts.WORKER_TOKEN.getKey().equals(recipient)) {
+                if (isWorkerRewardPullEnabled()) {
+                    accrueWorkerReward(accruedRewards);
+                } else {
+                    distributeWorkerToken(accruedRewards, ommAddress);
+                }
+            } else if (Contracts.DAO_FUND.getKey().equals(recipient)) {
+                Address daoFundAddress = getContractAddress(Contracts.DAO_FUND);
+                call(ommAddress, "transfer", daoFundAddress, accruedRewards);
                 Distribution("daoFund", daoFundAddress, accruedRewards);
             }
         }
@@ -355,22 +391,122 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
     }
 
     /**
-     * @param reward - BigInteger
-     * @deprecated use tokenFallback to distribute token to workerToken holders
+     * add reward to cumulative reward per worker token, holders pull their share with {@link #claimWorkerRewards()}.
+     * reward is kept in contract if worker token supply is zero
+     *
+     * @param reward - OMM reward of worker token holders
      */
-    @Deprecated
-    private void distributeWorkerToken(BigInteger reward) {
-        Address[] walletHolders = call(Address[].class, Contracts.WORKER_TOKEN, "getWallets");
+    private void accrueWorkerReward(BigInteger reward) {
+        if (reward.signum() <= 0) {
+            return;
+        }
         BigInteger totalSupply = call(BigInteger.class, Contracts.WORKER_TOKEN, "totalSupply");
+        if (totalSupply.signum() <= 0) {
+            return;
+        }
+        BigInteger[] increment = reward.multiply(WORKER_REWARD_PRECISION)
+                .add(workerRewardRemainder.getOrDefault(BigInteger.ZERO))
+                .divideAndRemainder(totalSupply);
+        workerRewardPerShare.set(workerRewardPerShare.getOrDefault(BigInteger.ZERO).add(increment[0]));
+        workerRewardRemainder.set(increment[1]);
+    }
+
+    private BigInteger settleWorkerReward(Address user, BigInteger balance, boolean readonly) {
+        BigInteger rewardPerShare = workerRewardPerShare.getOrDefault(BigInteger.ZERO);
+        BigInteger paid = workerRewardPerSharePaid.getOrDefault(user, BigInteger.ZERO);
+        BigInteger accrued = workerAccruedRewards.getOrDefault(user, BigInteger.ZERO);
+        if (rewardPerShare.equals(paid)) {
+            return accrued;
+        }
+        accrued = accrued.add(balance.multiply(rewardPerShare.subtract(paid)).divide(WORKER_REWARD_PRECISION));
+        if (!readonly) {
+            workerRewardPerSharePaid.set(user, rewardPerShare);
+            workerAccruedRewards.set(user, accrued);
+        }
+        return accrued;
+    }
+
+    /**
+     * settle worker rewards of sender and receiver with their balances before a worker token transfer, worker token
+     * should call this before balances are changed. mint and burn are settled the same way with zero address as sender
+     * or receiver
+     *
+     * @param _from        - sender address
+     * @param _fromBalance - worker token balance of sender before transfer
+     * @param _to          - receiver address
+     * @param _toBalance   - worker token balance of receiver before transfer
+     */
+    @External
+    public void onWorkerTokenTransfer(Address _from, BigInteger _fromBalance, Address _to, BigInteger _toBalance) {
+        onlyOrElseThrow(Contracts.WORKER_TOKEN, RewardDistributionException.unauthorized(
+                "Only worker token contract is allowed to call onWorkerTokenTransfer method"));
+        settleWorkerReward(_from, _fromBalance, false);
+        settleWorkerReward(_to, _toBalance, false);
+        if (!isWorkerTokenHookLive.getOrDefault(Boolean.FALSE)) {
+            isWorkerTokenHookLive.set(Boolean.TRUE);
+        }
+    }
+
+    /**
+     * switch worker rewards from push to pull. may only be called once worker token calls {@link
+     * #onWorkerTokenTransfer(Address, BigInteger, Address, BigInteger)} before every balance change, i.e. on transfer,
+     * mint and burn. without that hook a receiver of worker tokens would claim rewards accrued to sender, so pull is
+     * rejected until the hook has been called at least once. pull can not be disabled again since rewards accrued for
+     * pull are not pushed
+     */
+    @External
+    public void enableWorkerRewardPull() {
+        checkGovernance("enableWorkerRewardPull");
+        if (!isWorkerTokenHookLive.getOrDefault(Boolean.FALSE)) {
+            throw RewardDistributionException.unknown("Worker token does not call onWorkerTokenTransfer yet");
+        }
+        isWorkerRewardPullEnabled.set(Boolean.TRUE);
+    }
+
+    @External(readonly = true)
+    public boolean isWorkerRewardPullEnabled() {
+        return isWorkerRewardPullEnabled.getOrDefault(Boolean.FALSE);
+    }
+
+    @External
+    public void claimWorkerRewards() {
+        Address user = Context.getCaller();
+        BigInteger balance = call(BigInteger.class, Contracts.WORKER_TOKEN, "balanceOf", user);
+        BigInteger reward = settleWorkerReward(user, balance, false);
+        if (reward.signum() <= 0) {
+            return;
+        }
+        workerAccruedRewards.set(user, null);
+        call(Contracts.OMM_TOKEN, "transfer", user, reward);
+        Distribution("worker", user, reward);
+    }
+
+    @External(readonly = true)
+    public BigInteger getWorkerRewards(Address user) {
+        BigInteger balance = call(BigInteger.class, Contracts.WORKER_TOKEN, "balanceOf", user);
+        return settleWorkerReward(user, balance, true);
+    }
+
+    /**
+     * push reward to every worker token holder, costs a balance call and a transfer per holder. used while worker
+     * reward pull is disabled and for legacy reward payout of bOMM migration
+     *
+     * @param reward     - BigInteger
+     * @param ommAddress - OMM token address
+     */
+    private void distributeWorkerToken(BigInteger reward, Address ommAddress) {
+        Address workerTokenAddress = getContractAddress(Contracts.WORKER_TOKEN);
+        Address[] walletHolders = call(Address[].class, workerTokenAddress, "getWallets");
+        BigInteger totalSupply = call(BigInteger.class, workerTokenAddress, "totalSupply");
 
         BigInteger remaining = reward;
 
         for (Address user : walletHolders) {
-            BigInteger balanceOf = call(BigInteger.class, Contracts.WORKER_TOKEN, "balanceOf", user);
+            BigInteger balanceOf = call(BigInteger.class, workerTokenAddress, "balanceOf", user);
 
             BigInteger share = balanceOf.multiply(remaining).divide(totalSupply);
 
-            call(Contracts.OMM_TOKEN, "transfer", user, share);
+            call(ommAddress, "transfer", user, share);
             Distribution("worker", user, share);
 
             remaining = remaining.subtract(share);
@@ -391,7 +527,7 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
     @External
     public void transferOmmToDaoFund(BigInteger _value) {
         checkGovernance("transferOmmToDaoFund");
-        Address daoFundAddress = this.getAddress(Contracts.DAO_FUND.getKey());
+        Address daoFundAddress = this.getContractAddress(Contracts.DAO_FUND);
         call(Contracts.OMM_TOKEN, "transfer", daoFundAddress, _value);
     }
 
@@ -407,12 +543,15 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
         Map<String, BigInteger> dailyRewards = call(Map.class, Contracts.REWARD_WEIGHT_CONTROLLER,
                 "getAssetDailyRewards");
 
-        DictDB<Address, BigInteger> balances = workingBalance.at(user);
+        Map<String, BigInteger> workingBalances = new HashMap<>();
+        for (Address assetAddr : this.assets.getPositionAssets(user, this.platformRecipientMap.keySet())) {
+            workingBalances.put(assetAddr.toString(), this.assets.getUserAssetState(user, assetAddr).workingBalance);
+        }
         Map<String, BigInteger> response = new HashMap<>();
         for (Map.Entry<String, String> entry : assets.entrySet()) {
             Address assetAddr = Address.fromString(entry.getKey());
             String name = entry.getValue();
-            BigInteger userWorkingBalance = balances.getOrDefault(assetAddr, BigInteger.ZERO);
+            BigInteger userWorkingBalance = workingBalances.getOrDefault(entry.getKey(), BigInteger.ZERO);
             BigInteger assetWorkingTotal = workingTotal.getOrDefault(assetAddr, BigInteger.ZERO);
             BigInteger dailyReward = dailyRewards.get(name);
             if (!assetWorkingTotal.equals(BigInteger.ZERO)) {
@@ -426,40 +565,81 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
 
 
     @External
-    public void onKick(Address user, BigInteger bOMMUserBalance, @Optional byte[] data) {
+    public void onKick(Address user, BigInteger bOMMUserBalance, @Optional byte[] data,
+            @Optional BigInteger bOMMTotalSupply) {
         onlyOrElseThrow(Contracts.BOOSTED_OMM,
                 RewardDistributionException.unauthorized("Only bOMM contract is allowed to call onKick method"));
 
         if (!bOMMUserBalance.equals(BigInteger.ZERO)) {
             throw RewardDistributionException.unknown(user + " OMM locking has not expired");
         }
-        BigInteger bOMMTotalSupply = getBOMMTotalSupply();
+        if (bOMMTotalSupply == null) {
+            bOMMTotalSupply = getBOMMTotalSupply();
+        }
+
+        BigInteger toTimestampInSeconds = TimeConstants.getBlockTimestampInSecond();
+        List<Address> assets = this.assets.getPositionAssets(this.assets.loadPositions(user),
+                this.platformRecipientMap.keySet());
+        refreshAssetIndexes(assets, toTimestampInSeconds);
+        kickUser(user, assets, data, bOMMTotalSupply, toTimestampInSeconds);
+    }
+
+    @External
+    public void onKickBatch(Address[] users, @Optional byte[] data, @Optional BigInteger bOMMTotalSupply) {
+        onlyOrElseThrow(Contracts.BOOSTED_OMM,
+                RewardDistributionException.unauthorized("Only bOMM contract is allowed to call onKickBatch method"));
+        if (bOMMTotalSupply == null) {
+            bOMMTotalSupply = getBOMMTotalSupply();
+        }
 
-        List<Address> assets = this.assets.keySet(this.platformRecipientMap.keySet());
         BigInteger toTimestampInSeconds = TimeConstants.getBlockTimestampInSecond();
+        List<Address> platformRecipients = this.platformRecipientMap.keySet();
+        BigInteger[] positions = new BigInteger[users.length];
+        BigInteger allPositions = BigInteger.ZERO;
+        for (int i = 0; i < users.length; i++) {
+            positions[i] = this.assets.loadPositions(users[i]);
+            allPositions = allPositions.or(positions[i]);
+        }
+        refreshAssetIndexes(this.assets.getPositionAssets(allPositions, platformRecipients), toTimestampInSeconds);
+
+        for (int i = 0; i < users.length; i++) {
+            List<Address> assets = this.assets.getPositionAssets(positions[i], platformRecipients);
+            kickUser(users[i], assets, data, bOMMTotalSupply, toTimestampInSeconds);
+        }
+    }
+
+    /**
+     * recalculate working balances of a user with expired lock, indexes of given assets should be refreshed at the
+     * timestamp before
+     */
+    private void kickUser(Address user, List<Address> assets, byte[] data, BigInteger bOMMTotalSupply,
+            BigInteger toTimestampInSeconds) {
         for (Address assetAddr : assets) {
             Asset asset = this.assets.get(assetAddr);
             if (asset == null) {
                 continue;
             }
-            updateIndexes(assetAddr, user, toTimestampInSeconds);
+            UserAssetState state = this.assets.getUserAssetState(user, assetAddr);
+            updateIndexes(state, assetAddr, user, toTimestampInSeconds);
 
             WorkingBalance workingBalance = getUserBalance(user, assetAddr, asset.lpID);
-            workingBalance.bOMMUserBalance = bOMMUserBalance;
+            workingBalance.bOMMUserBalance = BigInteger.ZERO;
             workingBalance.bOMMTotalSupply = bOMMTotalSupply;
 
-            updateWorkingBalance(workingBalance);
+            updateWorkingBalance(state, workingBalance);
+            this.assets.setUserAssetState(user, assetAddr, state);
         }
         UserKicked(user, data);
     }
 
 
     @External
-    public void onBalanceUpdate(Address user) {
+    public void onBalanceUpdate(Address user, @Optional BigInteger bOMMUserBalance,
+            @Optional BigInteger bOMMTotalSupply) {
         onlyOrElseThrow(Contracts.BOOSTED_OMM,
                 RewardDistributionException.unauthorized(
                         "Only bOMM contract is allowed to call onBalanceUpdate method"));
-        _handleAction(Context.getCaller(), user);
+        _handleAction(Context.getCaller(), user, bOMMUserBalance, bOMMTotalSupply);
     }
 
     @Override
@@ -477,7 +657,61 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
         _handleAction(_asset, _userDetails._user);
     }
 
+    /**
+     * handle actions of multiple users and assets in a single call, asset indexes are updated once and bOMM balance
+     * is fetched once per user. duplicate user-asset pairs are handled only once.
+     *
+     * @param _actions - list of user and asset
+     */
+    @Override
+    @External
+    public void handleActions(UserAssetInput[] _actions) {
+        onlyOrElseThrow(Contracts.LENDING_POOL, RewardDistributionException.unauthorized(
+                "Only Lending pool contract is allowed to call handleActions method"));
+        if (!isHandleActionEnabled()) {
+            throw RewardDistributionException.handleActionDisabled();
+        }
+
+        List<Address> userAddrs = new ArrayList<>();
+        List<Address> assetAddrs = new ArrayList<>();
+        Map<Address, List<Address>> userAssets = new HashMap<>();
+        for (UserAssetInput action : _actions) {
+            Address assetAddr = action.asset;
+            if (this.assets.get(assetAddr) == null) {
+                throw RewardDistributionException.invalidAsset("Asset is null (" + assetAddr + ")");
+            }
+            if (!assetAddrs.contains(assetAddr)) {
+                assetAddrs.add(assetAddr);
+            }
+            List<Address> assets = userAssets.get(action.user);
+            if (assets == null) {
+                assets = new ArrayList<>();
+                userAssets.put(action.user, assets);
+                userAddrs.add(action.user);
+            }
+            if (!assets.contains(assetAddr)) {
+                assets.add(assetAddr);
+            }
+        }
+
+        refreshAssetIndexes(assetAddrs, TimeConstants.getBlockTimestampInSecond());
+        Address bOMMAddress = getContractAddress(Contracts.BOOSTED_OMM);
+        for (Address userAddr : userAddrs) {
+            Map<String, BigInteger> boostedBalance = call(Map.class, bOMMAddress, "getBalanceAndSupply", userAddr);
+            BigInteger bOMMUserBalance = boostedBalance.get("bOMMUserBalance");
+            BigInteger bOMMTotalSupply = boostedBalance.get("bOMMTotalSupply");
+            for (Address assetAddr : userAssets.get(userAddr)) {
+                _handleAction(assetAddr, userAddr, bOMMUserBalance, bOMMTotalSupply);
+            }
+        }
+    }
+
     private void _handleAction(Address assetAddr, Address userAddr) {
+        _handleAction(assetAddr, userAddr, null, null);
+    }
+
+    private void _handleAction(Address assetAddr, Address userAddr, BigInteger bOMMUserBalance,
+            BigInteger bOMMTotalSupply) {
         if (!isHandleActionEnabled()) {
             throw RewardDistributionException.handleActionDisabled();
         }
@@ -488,13 +722,60 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
         }
 
         BigInteger toTimestampInSeconds = TimeConstants.getBlockTimestampInSecond();
-        updateIndexes(assetAddr, userAddr, toTimestampInSeconds);
+        UserAssetState state = this.assets.getUserAssetState(userAddr, assetAddr);
+        updateIndexes(state, assetAddr, userAddr, toTimestampInSeconds);
 
-        Map<String, BigInteger> boostedBalance = getBoostedBalance(userAddr);
+        if (bOMMUserBalance == null || bOMMTotalSupply == null) {
+            Map<String, BigInteger> boostedBalance = getBoostedBalance(userAddr);
+            bOMMUserBalance = boostedBalance.get("bOMMUserBalance");
+            bOMMTotalSupply = boostedBalance.get("bOMMTotalSupply");
+        }
         WorkingBalance balance = getUserBalance(userAddr, assetAddr, asset.lpID);
-        balance.bOMMUserBalance = boostedBalance.get("bOMMUserBalance");
-        balance.bOMMTotalSupply = boostedBalance.get("bOMMTotalSupply");
-        updateWorkingBalance(balance);
+        balance.bOMMUserBalance = bOMMUserBalance;
+        balance.bOMMTotalSupply = bOMMTotalSupply;
+        updateWorkingBalance(state, balance);
+        this.assets.setUserAssetState(userAddr, assetAddr, state);
+    }
+
+    /**
+     * advance indexes of all assets to current timestamp, anyone can call this method so that index calculation is not
+     * paid by first user action of a block
+     */
+    @Override
+    @External
+    public void updateAllAssetIndexes() {
+        List<Address> assetAddrs = this.assets.keySet(this.platformRecipientMap.keySet());
+        _updateAssetIndexes(assetAddrs);
+    }
+
+    /**
+     * advance indexes of given assets to current timestamp, same as {@link #updateAllAssetIndexes()} for a subset of
+     * assets
+     *
+     * @param _assets - list of asset addresses
+     */
+    @Override
+    @External
+    public void updateAssetIndexesOf(Address[] _assets) {
+        List<Address> assetAddrs = new ArrayList<>();
+        for (Address assetAddr : _assets) {
+            if (this.assets.get(assetAddr) == null) {
+                throw RewardDistributionException.invalidAsset("Asset is null (" + assetAddr + ")");
+            }
+            if (!assetAddrs.contains(assetAddr)) {
+                assetAddrs.add(assetAddr);
+            }
+        }
+        _updateAssetIndexes(assetAddrs);
+    }
+
+    private void _updateAssetIndexes(List<Address> assetAddrs) {
+        BigInteger toTimestampInSeconds = TimeConstants.getBlockTimestampInSecond();
+        BigInteger startTimestamp = bOMMRewardStartDate.get();
+        if (startTimestamp == null || startTimestamp.compareTo(toTimestampInSeconds) > 0) {
+            throw RewardDistributionException.unknown("bOMM reward distribution not started (" + startTimestamp + ")");
+        }
+        refreshAssetIndexes(assetAddrs, toTimestampInSeconds);
     }
 
     /**
@@ -521,7 +802,7 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
             BigInteger totalSupply = null;
 
             if (poolId > 0) {
-                map = Context.call(Map.class, getAddress(Contracts.STAKED_LP.getKey()),
+                map = Context.call(Map.class, getContractAddress(Contracts.STAKED_LP),
                         "getTotalStaked", poolId);
                 decimals = map.get("decimals");
                 totalSupply = convertToExa(map.get("totalStaked"), decimals);
@@ -543,13 +824,14 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
 
         // daoFundRewards
         BigInteger daoFundRewards = tokenDistTracker.getOrDefault("daoFund", BigInteger.ZERO);
-        Address daoFundAddress = getAddress(Contracts.DAO_FUND.getKey());
-        call(Contracts.OMM_TOKEN, "transfer", daoFundAddress, daoFundRewards);
+        Address daoFundAddress = getContractAddress(Contracts.DAO_FUND);
+        Address ommAddress = getContractAddress(Contracts.OMM_TOKEN);
+        call(ommAddress, "transfer", daoFundAddress, daoFundRewards);
         Distribution("daoFund", daoFundAddress, daoFundRewards);
 
         // workerTokenRewards
         BigInteger workerRewards = tokenDistTracker.getOrDefault("worker", BigInteger.ZERO);
-        distributeWorkerToken(workerRewards);
+        distributeWorkerToken(workerRewards, ommAddress);
 
         // set token dist tracker to null
         tokenDistTracker.set("worker", null);
@@ -557,11 +839,59 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
     }
 
     /**
-     * calculate old accrued reward of users to bOMM cutOff timestamp, also update working balance of users
+     * queue users for calculation of old accrued reward to bOMM cutOff timestamp, queued users are migrated by
+     * {@link #continueMigration(int)}
      */
     @External
     public void migrateUserRewards(Address[] userAddresses) {
         checkOwner();
+        checkUserMigration();
+        for (Address userAddr : userAddresses) {
+            userMigration.enqueue(userAddr);
+        }
+        MigrationProgress(BigInteger.valueOf(userMigration.getPosition()),
+                BigInteger.valueOf(userMigration.total(this.legacyRewards.getAssets().size())));
+    }
+
+    /**
+     * calculate old accrued reward of queued users to bOMM cutOff timestamp and update their working balance, at most
+     * maxItems user-asset pairs are processed in a call, anyone can call this method until migration is done
+     *
+     * @param maxItems - maximum number of user-asset pairs to process, at most MAX_MIGRATION_BATCH_SIZE
+     */
+    @External
+    public void continueMigration(int maxItems) {
+        checkUserMigration();
+        if (maxItems <= 0 || maxItems > MAX_MIGRATION_BATCH_SIZE) {
+            throw RewardDistributionException.unknown("maxItems should be between 1 and " + MAX_MIGRATION_BATCH_SIZE);
+        }
+        List<Address> assetAddrs = this.legacyRewards.getAssets();
+        int assetCount = assetAddrs.size();
+        if (assetCount == 0 || userMigration.isDone(assetCount)) {
+            return;
+        }
+        Address bOMMAddress = getContractAddress(Contracts.BOOSTED_OMM);
+        Address ommAddress = getContractAddress(Contracts.OMM_TOKEN);
+
+        long position = userMigration.getPosition();
+        long end = userMigration.end(assetCount, maxItems);
+        for (; position < end; position++) {
+            Address userAddr = userMigration.keyAt(position, assetCount);
+            Address assetAddr = assetAddrs.get(MigrationCursor.itemAt(position, assetCount));
+            migrateUserReward(userAddr, assetAddr, ommAddress, bOMMAddress);
+        }
+        userMigration.setPosition(position);
+        MigrationProgress(BigInteger.valueOf(position), BigInteger.valueOf(userMigration.total(assetCount)));
+    }
+
+    @External(readonly = true)
+    public Map<String, BigInteger> getMigrationProgress() {
+        int assetCount = this.legacyRewards.getAssets().size();
+        return Map.of("position", BigInteger.valueOf(userMigration.getPosition()),
+                "total", BigInteger.valueOf(userMigration.total(assetCount)));
+    }
+
+    private void checkUserMigration() {
         if (!IS_ASSET_INDEX_UPDATED.getOrDefault(false)) {
             throw RewardDistributionException.unknown(
                     "Asset indexes are not migrated, Please migrate asset index first");
@@ -570,28 +900,30 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
             throw RewardDistributionException.unknown(
                     "User's reward migration completed");
         }
-        List<Address> assetAddrs = this.legacyRewards.getAssets();
-        Address bOMMAddress = getAddress(Contracts.BOOSTED_OMM.getKey());
-        for (Address assetAddr : assetAddrs) {
-            Integer poolId = this.legacyRewards.getPoolID(assetAddr);
-            for (Address userAddr : userAddresses) {
-                if (this.assets.getAccruedRewards(userAddr, assetAddr).equals(BigInteger.ZERO)) {
-                    WorkingBalance workingBalance = getUserBalance(userAddr, assetAddr, BigInteger.valueOf(poolId));
-                    workingBalance.bOMMUserBalance = BigInteger.ZERO;
-                    workingBalance.bOMMTotalSupply = BigInteger.ZERO;
-
-                    BigInteger totalReward = legacyRewards.accumulateUserRewards(workingBalance);
-
-                    if (assetAddr.equals(getAddress(Contracts.OMM_TOKEN.getKey()))) {
-                        this.assets.setAccruedRewards(userAddr, bOMMAddress, totalReward);
-                    } else {
-                        this.assets.setAccruedRewards(userAddr, assetAddr, totalReward);
-                        updateWorkingBalance(workingBalance);
-                    }
-                    LegacyUserIndexUpdated(userAddr, assetAddr);
-                }
-            }
+    }
+
+    private void migrateUserReward(Address userAddr, Address assetAddr, Address ommAddress, Address bOMMAddress) {
+        UserAssetState state = this.assets.getUserAssetState(userAddr, assetAddr);
+        if (!state.accrued.equals(BigInteger.ZERO)) {
+            return;
+        }
+        Integer poolId = this.legacyRewards.getPoolID(assetAddr);
+        WorkingBalance workingBalance = getUserBalance(userAddr, assetAddr, BigInteger.valueOf(poolId));
+        workingBalance.bOMMUserBalance = BigInteger.ZERO;
+        workingBalance.bOMMTotalSupply = BigInteger.ZERO;
+
+        BigInteger totalReward = legacyRewards.accumulateUserRewards(workingBalance);
+
+        if (assetAddr.equals(ommAddress)) {
+            UserAssetState bOMMState = this.assets.getUserAssetState(userAddr, bOMMAddress);
+            bOMMState.accrued = totalReward;
+            this.assets.setUserAssetState(userAddr, bOMMAddress, bOMMState);
+        } else {
+            state.accrued = totalReward;
+            updateWorkingBalance(state, workingBalance);
+            this.assets.setUserAssetState(userAddr, assetAddr, state);
         }
+        LegacyUserIndexUpdated(userAddr, assetAddr);
     }
 
     @External
@@ -624,6 +956,10 @@ public class RewardDistributionImpl extends AbstractRewardDistribution {
     public void LegacyUserIndexUpdated(Address _user, Address _asset) {
     }
 
+    @EventLog()
+    public void MigrationProgress(BigInteger position, BigInteger total) {
+    }
+
     @EventLog()
     public void OmmTokenMinted(BigInteger _day, BigInteger _value, BigInteger _days) {}
 
@@ -1,6 +1,8 @@
 package finance.omm.score.core.reward.distribution.db;
 
+import finance.omm.score.core.reward.distribution.exception.RewardDistributionException;
 import finance.omm.score.core.reward.distribution.model.Asset;
+import finance.omm.score.core.reward.distribution.model.UserAssetState;
 import finance.omm.utils.db.EnumerableDictDB;
 import java.math.BigInteger;
 import java.util.List;
@@ -9,6 +11,7 @@ import score.Address;
 import score.BranchDB;
 import score.Context;
 import score.DictDB;
+import scorex.util.ArrayList;
 import scorex.util.HashMap;
 
 public class Assets extends EnumerableDictDB<Address, Asset> {
@@ -18,6 +21,9 @@ public class Assets extends EnumerableDictDB<Address, Asset> {
     public static final String ASSET_INDEX = "assetIndex";
     public static final String USER_INDEX = "userIndex";
     public static final String USERS_ACCRUED_REWARDS = "user-accrued-rewards";
+    public static final String WORKING_BALANCE = "workingBalance";
+    public static final String USER_ASSET_STATE = "userAssetState";
+    public static final String USER_POSITIONS = "userPositions";
 
     // asset address -> last update timestamp in seconds
     private final DictDB<Address, BigInteger> indexUpdatedTimestamp;
@@ -28,7 +34,14 @@ public class Assets extends EnumerableDictDB<Address, Asset> {
 
     // user address-> asset-> rewards
     private final BranchDB<Address, DictDB<Address, BigInteger>> userAccruedRewards;
+    // user address-> asset-> working balance
+    private final BranchDB<Address, DictDB<Address, BigInteger>> workingBalance;
 
+    // user address-> asset-> index, rewards and working balance, replaces userIndex, userAccruedRewards and
+    // workingBalance which are read only for entries not yet migrated
+    private final BranchDB<Address, DictDB<Address, UserAssetState>> userAssetState;
+    // user address-> bitmap of assets with working balance or accrued rewards, bit i refers to i-th asset
+    private final DictDB<Address, BigInteger> userPositions;
 
     public Assets(String key) {
         super(key, Address.class, Asset.class);
@@ -36,14 +49,149 @@ public class Assets extends EnumerableDictDB<Address, Asset> {
         assetIndex = Context.newDictDB(key + ASSET_INDEX, BigInteger.class);
         userIndex = Context.newBranchDB(key + USER_INDEX, BigInteger.class);
         userAccruedRewards = Context.newBranchDB(USERS_ACCRUED_REWARDS, BigInteger.class);
+        workingBalance = Context.newBranchDB(WORKING_BALANCE, BigInteger.class);
+        userAssetState = Context.newBranchDB(key + USER_ASSET_STATE, UserAssetState.class);
+        userPositions = Context.newDictDB(key + USER_POSITIONS, BigInteger.class);
     }
 
-    public BigInteger getUserIndex(Address assetAddr, Address user) {
-        return this.userIndex.at(user).getOrDefault(assetAddr, BigInteger.ZERO);
+    public UserAssetState getUserAssetState(Address user, Address assetAddr) {
+        UserAssetState state = this.userAssetState.at(user).get(assetAddr);
+        if (state != null) {
+            return state;
+        }
+        state = new UserAssetState(this.userIndex.at(user).getOrDefault(assetAddr, BigInteger.ZERO),
+                this.userAccruedRewards.at(user).getOrDefault(assetAddr, BigInteger.ZERO),
+                this.workingBalance.at(user).getOrDefault(assetAddr, BigInteger.ZERO));
+        state.legacy = true;
+        return state;
+    }
+
+    public void setUserAssetState(Address user, Address assetAddr, UserAssetState state) {
+        this.userAssetState.at(user).set(assetAddr, state);
+        if (state.legacy) {
+            this.userIndex.at(user).set(assetAddr, null);
+            this.userAccruedRewards.at(user).set(assetAddr, null);
+            this.workingBalance.at(user).set(assetAddr, null);
+            state.legacy = false;
+        }
+
+        Integer index = indexOf(assetAddr);
+        if (index == null) {
+            return;
+        }
+        BigInteger positions = this.userPositions.get(user);
+        BigInteger current = positions == null ? getPositions(user) : positions;
+        BigInteger updated = hasPosition(state) ? current.setBit(index) : current.clearBit(index);
+        if (!updated.equals(positions)) {
+            this.userPositions.set(user, updated);
+        }
+    }
+
+    /**
+     * bitmap of assets in which user has working balance or accrued rewards, bitmap of users without a record is built
+     * from reward state of all assets
+     *
+     * @param user - user address
+     * @return bitmap, bit i refers to i-th asset
+     */
+    public BigInteger getPositions(Address user) {
+        BigInteger positions = this.userPositions.get(user);
+        if (positions != null) {
+            return positions;
+        }
+        positions = BigInteger.ZERO;
+        int size = size();
+        for (int i = 0; i < size; i++) {
+            if (hasPosition(getUserAssetState(user, getKey(i)))) {
+                positions = positions.setBit(i);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * same as getPositions, bitmap built for a user without a record is stored so that later calls read it directly. to
+     * be used from write paths only
+     *
+     * @param user - user address
+     * @return bitmap, bit i refers to i-th asset
+     */
+    public BigInteger loadPositions(Address user) {
+        BigInteger positions = this.userPositions.get(user);
+        if (positions == null) {
+            positions = getPositions(user);
+            this.userPositions.set(user, positions);
+        }
+        return positions;
+    }
+
+    /**
+     * assets in which user has working balance or accrued rewards, walks set bits of user positions only
+     *
+     * @param user     - user address
+     * @param excludes - asset addresses to skip
+     * @return assets with position, in order of asset list
+     */
+    public List<Address> getPositionAssets(Address user, List<Address> excludes) {
+        return getPositionAssets(getPositions(user), excludes);
     }
 
-    public void setUserIndex(Address assetAddr, Address user, BigInteger newIndex) {
-        this.userIndex.at(user).set(assetAddr, newIndex);
+    /**
+     * assets of a positions bitmap, bitmaps of several users can be combined to get assets of all of them
+     *
+     * @param positions - bitmap, bit i refers to i-th asset
+     * @param excludes  - asset addresses to skip
+     * @return assets with position, in order of asset list
+     */
+    public List<Address> getPositionAssets(BigInteger positions, List<Address> excludes) {
+        List<Address> result = new ArrayList<>();
+        int length = positions.bitLength();
+        for (int i = positions.getLowestSetBit(); i >= 0 && i < length; i++) {
+            if (!positions.testBit(i)) {
+                continue;
+            }
+            Address assetAddr = getKey(i);
+            if (!excludes.contains(assetAddr)) {
+                result.add(assetAddr);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * filter assets in which user has working balance or accrued rewards
+     *
+     * @param positions  - bitmap of user positions
+     * @param assetAddrs - list of asset addresses
+     * @return assets with position, in order of given list
+     */
+    public List<Address> filterPositions(BigInteger positions, List<Address> assetAddrs) {
+        List<Address> result = new ArrayList<>();
+        for (Address assetAddr : assetAddrs) {
+            Integer index = indexOf(assetAddr);
+            if (index != null && positions.testBit(index)) {
+                result.add(assetAddr);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * assets can not be removed, user position bitmaps refer to asset list indexes and removal moves the last asset to
+     * the removed index
+     */
+    @Override
+    public Asset remove(Address key) {
+        throw RewardDistributionException.unknown("Asset can not be removed (" + key + ")");
+    }
+
+    @Override
+    public void clear() {
+        throw RewardDistributionException.unknown("Assets can not be cleared");
+    }
+
+    private static boolean hasPosition(UserAssetState state) {
+        return state.workingBalance.signum() > 0 || state.accrued.signum() > 0;
     }
 
     public BigInteger getAssetIndex(Address assetAddr) {
@@ -94,12 +242,4 @@ public class Assets extends EnumerableDictDB<Address, Asset> {
         }
         return result;
     }
-
-    public BigInteger getAccruedRewards(Address userAddr, Address assetAddr) {
-        return this.userAccruedRewards.at(userAddr).getOrDefault(assetAddr, BigInteger.ZERO);
-    }
-
-    public void setAccruedRewards(Address userAddr, Address assetAddr, BigInteger value) {
-        this.userAccruedRewards.at(userAddr).set(assetAddr, value);
-    }
 }
@@ -0,0 +1,40 @@
+package finance.omm.score.core.reward.distribution.model;
+
+
+import java.math.BigInteger;
+import score.ObjectReader;
+import score.ObjectWriter;
+
+/**
+ * reward state of a user for an asset, stored as a single record so that an action reads and writes it once
+ */
+public class UserAssetState {
+
+    public BigInteger index;
+    public BigInteger accrued;
+    public BigInteger workingBalance;
+    // loaded from legacy per field storage, legacy entries are removed when state is written
+    public boolean legacy;
+
+    public UserAssetState(BigInteger index, BigInteger accrued, BigInteger workingBalance) {
+        this.index = index;
+        this.accrued = accrued;
+        this.workingBalance = workingBalance;
+    }
+
+    public static void writeObject(ObjectWriter w, UserAssetState s) {
+        w.beginList(3);
+        w.write(s.index);
+        w.write(s.accrued);
+        w.write(s.workingBalance);
+        w.end();
+    }
+
+    public static UserAssetState readObject(ObjectReader r) {
+        r.beginList();
+        UserAssetState s = new UserAssetState(r.readBigInteger(), r.readBigInteger(), r.readBigInteger());
+        r.end();
+        return s;
+    }
+
+}
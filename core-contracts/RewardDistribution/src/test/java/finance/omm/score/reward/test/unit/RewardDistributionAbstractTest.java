@@ -83,7 +83,7 @@ public abstract class RewardDistributionAbstractTest extends TestBase {
 
         score = sm.deploy(owner, RewardDistributionImpl.class,
                 MOCK_CONTRACT_ADDRESS.get(Contracts.ADDRESS_PROVIDER).getAddress(), bOMMCutOff);
-        setAddresses();
+        setAddresses(score);
         RewardDistributionImpl t = (RewardDistributionImpl) score.getInstance();
         scoreSpy = spy(t);
         mockAssets(scoreSpy, Mockito.spy(scoreSpy.assets));
@@ -91,8 +91,12 @@ public abstract class RewardDistributionAbstractTest extends TestBase {
     }
 
 
-    private void setAddresses() {
-        AddressDetails[] addressDetails = MOCK_CONTRACT_ADDRESS.entrySet().stream().map(e -> {
+    protected void setAddresses(Score score) {
+        setAddresses(score, MOCK_CONTRACT_ADDRESS);
+    }
+
+    protected void setAddresses(Score score, Map<Contracts, Account> contracts) {
+        AddressDetails[] addressDetails = contracts.entrySet().stream().map(e -> {
             AddressDetails ad = new AddressDetails();
             ad.address = e.getValue().getAddress();
             ad.name = e.getKey().toString();
@@ -1,9 +1,14 @@
 package finance.omm.score.reward.test.unit;
 
+import static finance.omm.utils.constants.AddressConstant.ZERO_ADDRESS;
 import static finance.omm.utils.constants.TimeConstants.DAY_IN_SECONDS;
 import static finance.omm.utils.constants.TimeConstants.SECOND;
 import static finance.omm.utils.constants.TimeConstants.getBlockTimestampInSecond;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.clearInvocations;
@@ -15,10 +20,15 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.iconloop.score.test.Account;
+import com.iconloop.score.test.Score;
 import finance.omm.libs.address.Contracts;
 import finance.omm.libs.structs.SupplyDetails;
+import finance.omm.libs.structs.UserAssetInput;
 import finance.omm.libs.structs.UserDetails;
 import finance.omm.libs.test.VarargAnyMatcher;
+import finance.omm.score.core.reward.distribution.RewardDistributionImpl;
+import finance.omm.score.core.reward.distribution.exception.RewardDistributionException;
+import finance.omm.score.core.reward.distribution.model.UserAssetState;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -56,6 +66,29 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
         verify(scoreSpy).AddType("key-1", Boolean.FALSE);
     }
 
+    @DisplayName("governance check should resolve contract address on a fresh instance")
+    @Test
+    void checkGovernance_shouldResolveAddressOnFreshInstance() throws Exception {
+        Score fresh = sm.deploy(owner, RewardDistributionImpl.class,
+                MOCK_CONTRACT_ADDRESS.get(Contracts.ADDRESS_PROVIDER).getAddress(), getBlockTimestampInSecond());
+        setAddresses(fresh);
+
+        Executable call = () -> fresh.invoke(owner, "disableRewardClaim");
+        expectErrorMessage(call, "Only Governance contract is allowed to call disableRewardClaim method");
+
+        fresh.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.GOVERNANCE), "disableRewardClaim");
+        assertEquals(Boolean.FALSE, fresh.call("isRewardClaimEnabled"));
+
+        Account governance = sm.createAccount();
+        setAddresses(fresh, Map.of(Contracts.GOVERNANCE, governance));
+
+        call = () -> fresh.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.GOVERNANCE), "enableRewardClaim");
+        expectErrorMessage(call, "Only Governance contract is allowed to call enableRewardClaim method");
+
+        fresh.invoke(governance, "enableRewardClaim");
+        assertEquals(Boolean.TRUE, fresh.call("isRewardClaimEnabled"));
+    }
+
     @DisplayName("test add asset")
     @Test
     public void testAddAsset() {
@@ -144,17 +177,9 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
             BigInteger bOMMbalance_2 = BigInteger.valueOf(400).multiply(ICX);
             BigInteger totalbOMMbalance = bOMMbalance_1.add(bOMMbalance_2);
 
-            doReturn(bOMMbalance_1).when(scoreSpy)
-                    .call(BigInteger.class, Contracts.BOOSTED_OMM, "balanceOf", details_1._user);
-
-            doReturn(bOMMbalance_2).when(scoreSpy)
-                    .call(BigInteger.class, Contracts.BOOSTED_OMM, "balanceOf", details_2._user);
-
-            doReturn(BigInteger.ZERO).when(scoreSpy)
-                    .call(BigInteger.class, Contracts.BOOSTED_OMM, "balanceOf", details_3._user);
-
-            doReturn(bOMMbalance_1, totalbOMMbalance, totalbOMMbalance).when(scoreSpy)
-                    .call(BigInteger.class, Contracts.BOOSTED_OMM, "totalSupply");
+            mockBoostedBalance(details_1._user, bOMMbalance_1, bOMMbalance_1);
+            mockBoostedBalance(details_2._user, bOMMbalance_2, totalbOMMbalance);
+            mockBoostedBalance(details_3._user, BigInteger.ZERO, totalbOMMbalance);
 
             /*
             user 1
@@ -199,6 +224,103 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
         }
 
 
+        @DisplayName("should handle batched actions once per user and asset")
+        @Test
+        void handleActions_shouldGroupByUserAndAsset() {
+            doReturn(new HashMap<String, BigInteger>()).when(scoreSpy)
+                    .call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER), eq("calculateIntegrateIndexes"),
+                            ArgumentMatchers.<Object>argThat(matcher));
+            doReturn(createSupplyDetails(200)).when(scoreSpy).fetchUserBalance(any(), any(), any());
+
+            Address user_1 = users.get(0).getAddress();
+            Address user_2 = users.get(1).getAddress();
+            mockBoostedBalance(user_1, ICX, TWO.multiply(ICX));
+            mockBoostedBalance(user_2, ICX, TWO.multiply(ICX));
+
+            UserAssetInput[] actions = new UserAssetInput[]{
+                    createUserAssetInput(user_1, assets[0]),
+                    createUserAssetInput(user_1, assets[1]),
+                    createUserAssetInput(user_1, assets[0]),
+                    createUserAssetInput(user_2, assets[0])
+            };
+
+            Executable call = () -> score.invoke(users.get(0), "handleActions", (Object) actions);
+            expectErrorMessage(call, "Only Lending pool contract is allowed to call handleActions method");
+
+            clearInvocations(scoreSpy);
+            score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.LENDING_POOL), "handleActions", (Object) actions);
+
+            verify(scoreSpy).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                    eq("calculateIntegrateIndexes"), ArgumentMatchers.<Object>argThat(matcher));
+            verify(scoreSpy, never()).call(eq(BigInteger.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                    eq("calculateIntegrateIndex"), ArgumentMatchers.<Object>argThat(matcher));
+            Address bOMMAddress = MOCK_CONTRACT_ADDRESS.get(Contracts.BOOSTED_OMM).getAddress();
+            verify(scoreSpy).call(Map.class, bOMMAddress, "getBalanceAndSupply", user_1);
+            verify(scoreSpy).call(Map.class, bOMMAddress, "getBalanceAndSupply", user_2);
+            verify(scoreSpy, times(3)).fetchUserBalance(any(), any(), any());
+            verify(scoreSpy, times(3)).WorkingBalanceUpdated(any(), any(), any(), any());
+        }
+
+        @DisplayName("legacy user index should be migrated to user asset state on first action")
+        @Test
+        void handleAction_shouldMigrateLegacyUserState() {
+            Address user = users.get(0).getAddress();
+            Address asset = assets[0].getAddress();
+            BigInteger legacyIndex = BigInteger.TWO.multiply(ICX);
+            scoreSpy.assets.userIndex.at(user).set(asset, legacyIndex);
+
+            Map<String, BigInteger> indexes = (Map<String, BigInteger>) score.call("getIndexes", user, asset);
+            assertEquals(legacyIndex, indexes.get("userIndex"));
+
+            doReturn(Map.of(asset.toString(), BigInteger.valueOf(3).multiply(ICX))).when(scoreSpy)
+                    .call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER), eq("calculateIntegrateIndexes"),
+                            ArgumentMatchers.<Object>argThat(matcher));
+            doReturn(createSupplyDetails(100)).when(scoreSpy).fetchUserBalance(any(), any(), any());
+            mockBoostedBalance(user, ICX, TWO.multiply(ICX));
+            score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.LENDING_POOL), "handleActions",
+                    (Object) new UserAssetInput[]{createUserAssetInput(user, assets[0])});
+
+            BigInteger assetIndex = (BigInteger) score.call("getAssetIndex", asset);
+            indexes = (Map<String, BigInteger>) score.call("getIndexes", user, asset);
+            assertEquals(assetIndex, indexes.get("userIndex"));
+            assertNull(scoreSpy.assets.userIndex.at(user).get(asset));
+            verify(scoreSpy).UserIndexUpdated(user, asset, legacyIndex, assetIndex);
+        }
+
+        @DisplayName("anyone should advance asset indexes in a single batch")
+        @Test
+        void updateAssetIndexes_shouldAdvanceIndexesInBatch() {
+            Address asset = assets[0].getAddress();
+            BigInteger delta = BigInteger.TEN.multiply(ICX);
+            doReturn(Map.of(asset.toString(), delta)).when(scoreSpy)
+                    .call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER), eq("calculateIntegrateIndexes"),
+                            ArgumentMatchers.<Object>argThat(matcher));
+
+            Address invalid = users.get(0).getAddress();
+            Executable call = () -> score.invoke(users.get(0), "updateAssetIndexesOf",
+                    (Object) new Address[]{asset, invalid});
+            expectErrorMessage(call, "Asset is null (" + invalid + ")");
+
+            clearInvocations(scoreSpy);
+            BigInteger oldIndex = (BigInteger) score.call("getAssetIndex", asset);
+            score.invoke(users.get(0), "updateAssetIndexesOf", (Object) new Address[]{asset, asset});
+
+            verify(scoreSpy).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                    eq("calculateIntegrateIndexes"), ArgumentMatchers.<Object>argThat(matcher));
+            verify(scoreSpy).AssetIndexUpdated(asset, oldIndex, oldIndex.add(delta));
+            assertEquals(oldIndex.add(delta), score.call("getAssetIndex", asset));
+
+            sm.getBlock().increase(10);
+            clearInvocations(scoreSpy);
+            score.invoke(users.get(1), "updateAllAssetIndexes");
+
+            verify(scoreSpy).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                    eq("calculateIntegrateIndexes"), ArgumentMatchers.<Object>argThat(matcher));
+            verify(scoreSpy, never()).call(eq(BigInteger.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                    eq("calculateIntegrateIndex"), ArgumentMatchers.<Object>argThat(matcher));
+            assertEquals(oldIndex.add(delta).add(delta), score.call("getAssetIndex", asset));
+        }
+
         @Nested
         @DisplayName("rewards")
         class TestReward {
@@ -229,10 +351,8 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
                 sm.getBlock().increase(999);
 
                 for (Account asset : assets) {
-                    doReturn(bOMMBalance, BigInteger.ZERO).when(scoreSpy)
-                            .call(eq(BigInteger.class), eq(Contracts.BOOSTED_OMM), eq("balanceOf"), any());
-                    doReturn(bOMMBalance.multiply(TWO)).when(scoreSpy)
-                            .call(BigInteger.class, Contracts.BOOSTED_OMM, "totalSupply");
+                    mockBoostedBalance(details_1._user, bOMMBalance, bOMMBalance.multiply(TWO));
+                    mockBoostedBalance(details_2._user, BigInteger.ZERO, bOMMBalance.multiply(TWO));
 
                     score.invoke(asset, "handleAction", details_1);
                     score.invoke(asset, "handleAction", details_2);
@@ -246,17 +366,14 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
                 clearInvocations(scoreSpy);
                 clearInvocations(scoreSpy.assets);
 
-                doReturn(ICX).when(scoreSpy)
-                        .call(eq(BigInteger.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
-                                eq("calculateIntegrateIndex"),
-                                ArgumentMatchers.<Object>argThat(matcher));
+                mockIntegrateIndexes(ICX);
 
                 doReturn(details).when(scoreSpy).fetchUserBalance(any(), any(), any());
 
                 Map<String, ?> result = (Map<String, ?>) score.call("getRewards", users.get(userIndex).getAddress());
 
                 verify(scoreSpy.assets, never()).setAssetIndex(any(), any());
-                verify(scoreSpy.assets, never()).setUserIndex(any(), any(), any());
+                verify(scoreSpy.assets, never()).setUserAssetState(any(), any(), any());
 
                 verify(scoreSpy, never()).AssetIndexUpdated(any(), any(), any());
                 verify(scoreSpy, never()).UserIndexUpdated(any(), any(), any(), any());
@@ -264,6 +381,22 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
                 verifyGetRewards(result, weight);
             }
 
+            @Test
+            void getRewards_shouldListAssetsWithoutPosition() {
+                clearInvocations(scoreSpy);
+
+                Map<String, ?> result = (Map<String, ?>) score.call("getRewards", sm.createAccount().getAddress());
+
+                verify(scoreSpy, never()).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                        eq("calculateIntegrateIndexes"), ArgumentMatchers.<Object>argThat(matcher));
+
+                Map<String, BigInteger> type2 = (Map<String, BigInteger>) result.get("type-2");
+                assertEquals(BigInteger.ZERO, type2.get("asset-name-2"));
+                assertEquals(BigInteger.ZERO, type2.get("asset-name-3"));
+                assertEquals(BigInteger.ZERO, type2.get("total"));
+                assertEquals(BigInteger.ZERO, result.get("total"));
+            }
+
             private void verifyGetRewards(Map<String, ?> result, long weight) {
 
 //                user1 working balance min(100*0.4+200*200/400*0.6,100)=100
@@ -291,18 +424,14 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
             void claimRewards_shouldReturnGroupRewards(int userIndex, Long tokenBalance, Long bBalance,
                     long workingBalance, long workingTotal) {
                 clearInvocations(scoreSpy);
+                clearInvocations(scoreSpy.assets);
                 Account user = users.get(userIndex);
                 doReturn(Boolean.TRUE).when(scoreSpy).isRewardClaimEnabled();
 
-                doReturn(BigInteger.valueOf(bBalance).multiply(ICX)).when(scoreSpy)
-                        .call(BigInteger.class, Contracts.BOOSTED_OMM, "balanceOf", user.getAddress());
-                doReturn(BigInteger.valueOf(1000).multiply(ICX)).when(scoreSpy)
-                        .call(BigInteger.class, Contracts.BOOSTED_OMM, "totalSupply");
+                mockBoostedBalance(user.getAddress(), BigInteger.valueOf(bBalance).multiply(ICX),
+                        BigInteger.valueOf(1000).multiply(ICX));
 
-                doReturn(ICX).when(scoreSpy)
-                        .call(eq(BigInteger.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
-                                eq("calculateIntegrateIndex"),
-                                ArgumentMatchers.<Object>argThat(matcher));
+                mockIntegrateIndexes(ICX);
                 assert (bBalance < 1000);
                 SupplyDetails details = new SupplyDetails();
                 details.decimals = BigInteger.valueOf(0x12);
@@ -336,10 +465,7 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
                 doReturn(BigInteger.ONE).when(scoreSpy)
                         .call(BigInteger.class, Contracts.BOOSTED_OMM, "totalSupply");
 
-                doReturn(ICX).when(scoreSpy)
-                        .call(eq(BigInteger.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
-                                eq("calculateIntegrateIndex"),
-                                ArgumentMatchers.<Object>argThat(matcher));
+                mockIntegrateIndexes(ICX);
 
                 SupplyDetails details = createSupplyDetails(200);
 
@@ -352,6 +478,192 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
                 verifyGetRewards(result, weight);
             }
 
+            @DisplayName("kick should use bOMM total supply pushed by bOMM")
+            @Test
+            void kick_shouldUsePushedSupply() {
+                clearInvocations(scoreSpy);
+                Address user = users.get(0).getAddress();
+                mockIntegrateIndexes(ICX);
+                doReturn(createSupplyDetails(200)).when(scoreSpy).fetchUserBalance(any(), any(), any());
+
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.BOOSTED_OMM), "onKick", user, BigInteger.ZERO,
+                        "message".getBytes(), BigInteger.ONE);
+
+                verify(scoreSpy, never()).call(BigInteger.class, Contracts.BOOSTED_OMM, "totalSupply");
+                verify(scoreSpy).UserKicked(user, "message".getBytes());
+            }
+
+            @DisplayName("batch kick should calculate asset indexes once for all users")
+            @Test
+            void kickBatch_shouldRefreshIndexesOnce() {
+                clearInvocations(scoreSpy);
+                Address[] kicked = new Address[]{users.get(0).getAddress(), users.get(1).getAddress()};
+                mockIntegrateIndexes(ICX);
+                doReturn(createSupplyDetails(200)).when(scoreSpy).fetchUserBalance(any(), any(), any());
+
+                // both users hold positions in every asset from setup
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.BOOSTED_OMM), "onKickBatch", kicked,
+                        "message".getBytes(), BigInteger.ONE);
+
+                ArgumentCaptor<Object> params = ArgumentCaptor.forClass(Object.class);
+                verify(scoreSpy, times(1)).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                        eq("calculateIntegrateIndexes"), params.capture());
+                assertEquals(assets.length, ((Address[]) params.getAllValues().get(0)).length);
+                verify(scoreSpy, never()).call(BigInteger.class, Contracts.BOOSTED_OMM, "totalSupply");
+                verify(scoreSpy).UserKicked(kicked[0], "message".getBytes());
+                verify(scoreSpy).UserKicked(kicked[1], "message".getBytes());
+            }
+
+            @DisplayName("claim should calculate asset indexes in single call")
+            @Test
+            void claimRewards_shouldBatchIntegrateIndex() {
+                clearInvocations(scoreSpy);
+                Account user = users.get(0);
+                doReturn(Boolean.TRUE).when(scoreSpy).isRewardClaimEnabled();
+                mockBoostedBalance(user.getAddress(), BigInteger.ZERO, BigInteger.ZERO);
+                mockIntegrateIndexes(ICX);
+                doNothing().when(scoreSpy)
+                        .call(eq(Contracts.OMM_TOKEN), eq("transfer"), ArgumentMatchers.<Object>argThat(matcher));
+
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.LENDING_POOL), "claimRewards", user.getAddress());
+
+                verify(scoreSpy, times(1)).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                        eq("calculateIntegrateIndexes"), ArgumentMatchers.<Object>argThat(matcher));
+                verify(scoreSpy, never()).call(eq(BigInteger.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                        eq("calculateIntegrateIndex"), ArgumentMatchers.<Object>argThat(matcher));
+            }
+
+            @DisplayName("claim should visit only requested assets with position")
+            @Test
+            void claimAssetRewards_shouldVisitAssetsWithPosition() {
+                Account user = users.get(0);
+                doReturn(Boolean.TRUE).when(scoreSpy).isRewardClaimEnabled();
+                mockBoostedBalance(user.getAddress(), BigInteger.ZERO, BigInteger.ZERO);
+                mockIntegrateIndexes(ICX);
+                doNothing().when(scoreSpy)
+                        .call(eq(Contracts.OMM_TOKEN), eq("transfer"), ArgumentMatchers.<Object>argThat(matcher));
+
+                Address[] request = new Address[]{assets[1].getAddress(), assets[1].getAddress()};
+                Executable call = () -> score.invoke(user, "claimAssetRewards", user.getAddress(), request);
+                expectErrorMessage(call, "Only Lending pool contract is allowed to call claimAssetRewards method");
+
+                clearInvocations(scoreSpy);
+                clearInvocations(scoreSpy.assets);
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.LENDING_POOL), "claimAssetRewards",
+                        user.getAddress(), request);
+
+                verify(scoreSpy, times(1)).fetchUserBalance(any(), any(), any());
+                verify(scoreSpy.assets, times(1)).setUserAssetState(eq(user.getAddress()),
+                        eq(assets[1].getAddress()), any());
+                verify(scoreSpy).RewardsClaimed(eq(user.getAddress()), any(), eq("Asset rewards claimed"));
+
+                Account noPosition = users.get(2);
+                clearInvocations(scoreSpy);
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.LENDING_POOL), "claimRewards",
+                        noPosition.getAddress());
+
+                verify(scoreSpy, never()).fetchUserBalance(any(), any(), any());
+                verify(scoreSpy, never()).call(Map.class, Contracts.BOOSTED_OMM, "getBalanceAndSupply",
+                        noPosition.getAddress());
+                verify(scoreSpy, never()).RewardsClaimed(any(), any(), any());
+            }
+
+            @DisplayName("user without position should not read asset indexes")
+            @Test
+            void getRewards_shouldSkipAssetsWithoutPosition() {
+                Address user = users.get(2).getAddress();
+                clearInvocations(scoreSpy);
+
+                Map<String, ?> result = (Map<String, ?>) score.call("getRewards", user);
+                Map<String, BigInteger> workingBalances = (Map<String, BigInteger>) score.call("getWorkingBalances",
+                        user);
+
+                verify(scoreSpy, never()).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                        eq("calculateIntegrateIndexes"), ArgumentMatchers.<Object>argThat(matcher));
+                assertEquals(BigInteger.ZERO, result.get("total"));
+                assertEquals(BigInteger.ZERO, ((Map<String, BigInteger>) result.get("type-2")).get("asset-name-3"));
+                assertEquals(4, workingBalances.size());
+                for (BigInteger value : workingBalances.values()) {
+                    assertEquals(BigInteger.ZERO, value);
+                }
+
+                doReturn(createSupplyDetails(200)).when(scoreSpy).fetchUserBalance(any(), any(), any());
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.BOOSTED_OMM), "onKick", user, BigInteger.ZERO,
+                        "message".getBytes(), BigInteger.ONE);
+                verify(scoreSpy, never()).fetchUserBalance(any(), any(), any());
+                verify(scoreSpy).UserKicked(user, "message".getBytes());
+            }
+
+            @DisplayName("rewards should calculate indexes of assets with position only")
+            @Test
+            void getRewards_shouldCalculateIndexesOfPositionAssets() {
+                Address user = users.get(2).getAddress();
+                UserAssetState state = scoreSpy.assets.getUserAssetState(user, assets[1].getAddress());
+                state.workingBalance = ICX;
+                scoreSpy.assets.setUserAssetState(user, assets[1].getAddress(), state);
+                mockIntegrateIndexes(ICX);
+                clearInvocations(scoreSpy);
+
+                Map<String, ?> result = (Map<String, ?>) score.call("getRewards", user);
+
+                ArgumentCaptor<Object> params = ArgumentCaptor.forClass(Object.class);
+                verify(scoreSpy, times(1)).call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER),
+                        eq("calculateIntegrateIndexes"), params.capture());
+                assertArrayEquals(new Address[]{assets[1].getAddress()}, (Address[]) params.getAllValues().get(0));
+
+                Map<String, BigInteger> type2 = (Map<String, BigInteger>) result.get("type-2");
+                assertEquals(ICX, type2.get("asset-name-2"));
+                assertEquals(BigInteger.ZERO, type2.get("asset-name-3"));
+                assertEquals(BigInteger.ZERO, ((Map<String, BigInteger>) result.get("type-1")).get("asset-name-1"));
+                assertEquals(ICX, result.get("total"));
+            }
+
+            @DisplayName("positions built on first claim should be stored, even if empty")
+            @Test
+            void claimRewards_shouldStorePositions() {
+                Account noPosition = users.get(2);
+                doReturn(Boolean.TRUE).when(scoreSpy).isRewardClaimEnabled();
+
+                clearInvocations(scoreSpy.assets);
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.LENDING_POOL), "claimRewards",
+                        noPosition.getAddress());
+                verify(scoreSpy.assets, times(assets.length)).getUserAssetState(eq(noPosition.getAddress()), any());
+
+                clearInvocations(scoreSpy.assets);
+                score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.LENDING_POOL), "claimRewards",
+                        noPosition.getAddress());
+                verify(scoreSpy.assets, never()).getUserAssetState(any(), any());
+                assertEquals(BigInteger.ZERO, scoreSpy.assets.getPositions(noPosition.getAddress()));
+            }
+
+            @DisplayName("asset removal should be rejected to keep position bitmaps valid")
+            @Test
+            void removeAsset_shouldBeRejected() {
+                Address user = users.get(0).getAddress();
+                BigInteger positions = scoreSpy.assets.getPositions(user);
+
+                Exception e = assertThrows(RewardDistributionException.class,
+                        () -> scoreSpy.assets.remove(assets[0].getAddress()));
+                assertTrue(e.getMessage().contains("Asset can not be removed (" + assets[0].getAddress() + ")"));
+                e = assertThrows(RewardDistributionException.class, () -> scoreSpy.assets.clear());
+                assertTrue(e.getMessage().contains("Assets can not be cleared"));
+
+                assertEquals(assets.length, scoreSpy.assets.size());
+                assertEquals(positions, scoreSpy.assets.getPositions(user));
+                assertEquals(assets[0].getAddress(),
+                        scoreSpy.assets.getPositionAssets(user, List.of()).get(0));
+            }
+
+            private void mockIntegrateIndexes(BigInteger index) {
+                Map<String, BigInteger> indexes = new HashMap<>();
+                for (Account asset : assets) {
+                    indexes.put(asset.getAddress().toString(), index);
+                }
+                doReturn(indexes).when(scoreSpy)
+                        .call(eq(Map.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER), eq("calculateIntegrateIndexes"),
+                                ArgumentMatchers.<Object>argThat(matcher));
+            }
+
             private void verifyWorkingBalanceUpdate(Long tokenBalance, Long balance, Long workingTotalBalance) {
                 ArgumentCaptor<BigInteger> workingBalance = ArgumentCaptor.forClass(BigInteger.class);
                 ArgumentCaptor<BigInteger> workingTotal = ArgumentCaptor.forClass(BigInteger.class);
@@ -389,16 +701,21 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
 
             private void verifyUserIndex(BigInteger asset) {
                 ArgumentCaptor<Address> assetIdCapture = ArgumentCaptor.forClass(Address.class);
-                ArgumentCaptor<BigInteger> indexCapture = ArgumentCaptor.forClass(BigInteger.class);
-                verify(scoreSpy.assets, times(4)).setUserIndex(assetIdCapture.capture(), any(), indexCapture.capture());
+                ArgumentCaptor<UserAssetState> stateCapture = ArgumentCaptor.forClass(UserAssetState.class);
+                verify(scoreSpy.assets, times(4)).setUserAssetState(any(), assetIdCapture.capture(),
+                        stateCapture.capture());
 
                 assertEquals(Arrays.asList(assets[0].getAddress(), assets[1].getAddress(), assets[2].getAddress(),
                                 assets[3].getAddress()),
                         assetIdCapture.getAllValues());
-                assertEquals(Arrays.asList(asset, asset, asset, asset), indexCapture.getAllValues());
+                for (UserAssetState state : stateCapture.getAllValues()) {
+                    assertEquals(asset, state.index);
+                    assertEquals(BigInteger.ZERO, state.accrued);
+                }
+
+                ArgumentCaptor<BigInteger> indexCapture = ArgumentCaptor.forClass(BigInteger.class);
 
                 assetIdCapture = ArgumentCaptor.forClass(Address.class);
-                indexCapture = ArgumentCaptor.forClass(BigInteger.class);
                 ArgumentCaptor<BigInteger> oldIndex = ArgumentCaptor.forClass(BigInteger.class);
                 verify(scoreSpy, times(4)).UserIndexUpdated(any(), assetIdCapture.capture(), oldIndex.capture(),
                         indexCapture.capture());
@@ -423,6 +740,13 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
             return details;
         }
 
+        private UserAssetInput createUserAssetInput(Address user, Account asset) {
+            UserAssetInput input = new UserAssetInput();
+            input.user = user;
+            input.asset = asset.getAddress();
+            return input;
+        }
+
         private SupplyDetails createSupplyDetails(long balance) {
             SupplyDetails details = new SupplyDetails();
             details.decimals = BigInteger.valueOf(18);
@@ -469,7 +793,9 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
         doReturn(response).when(scoreSpy)
                 .call(clazz, Contracts.REWARD_WEIGHT_CONTROLLER, "precompute",
                         BigInteger.ZERO);
-        doNothing().when(scoreSpy).call(Contracts.OMM_TOKEN, "mint", distribution);
+        doNothing().when(scoreSpy).call(Contracts.REWARD_WEIGHT_CONTROLLER, "refreshWeightSnapshot");
+        doNothing().when(scoreSpy)
+                .call(MOCK_CONTRACT_ADDRESS.get(Contracts.OMM_TOKEN).getAddress(), "mint", distribution);
         mockTokenDistribution();
 
         BigInteger newIndex = ICX.divide(BigInteger.valueOf(1_000_000));
@@ -485,6 +811,7 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
 
         verify(scoreSpy).OmmTokenMinted((BigInteger) response.get("day"), distribution,
                 ((BigInteger) response.get("day")).subtract(BigInteger.ZERO));
+        verify(scoreSpy).call(Contracts.REWARD_WEIGHT_CONTROLLER, "refreshWeightSnapshot");
         verify(scoreSpy).Distribution(eq("daoFund"), eq(MOCK_CONTRACT_ADDRESS.get(Contracts.DAO_FUND).getAddress()),
                 Mockito.any(BigInteger.class));
         verify(scoreSpy, times(2)).AssetIndexUpdated(any(), eq(BigInteger.ZERO),
@@ -510,12 +837,117 @@ public class RewardDistributionUnitTest extends RewardDistributionAbstractTest {
         assertEquals(response.get("day"), scoreDay);
     }
 
+    @DisplayName("distribute should accrue worker rewards without visiting holders")
+    @Test
+    void testDistribute_shouldAccrueWorkerRewardPerShare() {
+        BigInteger reward = distributeWithWorkerRewardPull(BigInteger.valueOf(100));
+
+        verify(scoreSpy, never()).call(Address[].class, MOCK_CONTRACT_ADDRESS.get(Contracts.WORKER_TOKEN).getAddress(),
+                "getWallets");
+        verify(scoreSpy, never()).Distribution(eq("worker"), any(), any());
+
+        Account worker = sm.createAccount();
+        doReturn(BigInteger.valueOf(25)).when(scoreSpy)
+                .call(BigInteger.class, Contracts.WORKER_TOKEN, "balanceOf", worker.getAddress());
+        BigInteger share = reward.divide(FOUR);
+        assertEquals(share, score.call("getWorkerRewards", worker.getAddress()));
+
+        score.invoke(worker, "claimWorkerRewards");
+        verify(scoreSpy).Distribution("worker", worker.getAddress(), share);
+        assertEquals(BigInteger.ZERO, score.call("getWorkerRewards", worker.getAddress()));
+
+        score.invoke(worker, "claimWorkerRewards");
+        verify(scoreSpy, times(1)).Distribution(eq("worker"), any(), any());
+    }
+
+    @DisplayName("worker reward per share should not truncate rewards of a large worker token supply")
+    @Test
+    void testDistribute_shouldKeepWorkerRewardPrecision() {
+        // reward * ICX / supply truncates to 333_333, holders would get 333_333_000_000 instead of 333_333_333_333
+        BigInteger supply = ICX.multiply(BigInteger.valueOf(3_000_000));
+        BigInteger reward = distributeWithWorkerRewardPull(supply);
+
+        Account worker = sm.createAccount();
+        doReturn(supply.divide(BigInteger.valueOf(3))).when(scoreSpy)
+                .call(BigInteger.class, Contracts.WORKER_TOKEN, "balanceOf", worker.getAddress());
+        assertEquals(reward.divide(BigInteger.valueOf(3)), score.call("getWorkerRewards", worker.getAddress()));
+
+        BigInteger remainder = reward.multiply(RewardDistributionImpl.WORKER_REWARD_PRECISION).mod(supply);
+        assertEquals(remainder, scoreSpy.workerRewardRemainder.get());
+    }
+
+    /**
+     * enable worker reward pull once worker token hook is live and distribute a day
+     *
+     * @param workerSupply - worker token total supply
+     * @return OMM reward of worker token holders
+     */
+    private BigInteger distributeWithWorkerRewardPull(BigInteger workerSupply) {
+        VarargAnyMatcher<Object> matcher = new VarargAnyMatcher<>();
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.REWARD_WEIGHT_CONTROLLER), eq("addType"),
+                        ArgumentMatchers.<Object>argThat(matcher));
+        score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.GOVERNANCE), "addType", "workerToken", Boolean.TRUE);
+        score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.GOVERNANCE), "addType", "daoFund", Boolean.TRUE);
+
+        Executable call = () -> score.invoke(owner, "enableWorkerRewardPull");
+        expectErrorMessage(call, "Only Governance contract is allowed to call enableWorkerRewardPull method");
+        call = () -> score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.GOVERNANCE), "enableWorkerRewardPull");
+        expectErrorMessage(call, "Worker token does not call onWorkerTokenTransfer yet");
+        assertEquals(Boolean.FALSE, score.call("isWorkerRewardPullEnabled"));
+
+        // first mint of worker token after the hook is deployed
+        Account holder = sm.createAccount();
+        score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.WORKER_TOKEN), "onWorkerTokenTransfer",
+                ZERO_ADDRESS, BigInteger.ZERO, holder.getAddress(), BigInteger.ZERO);
+        score.invoke(MOCK_CONTRACT_ADDRESS.get(Contracts.GOVERNANCE), "enableWorkerRewardPull");
+        assertEquals(Boolean.TRUE, score.call("isWorkerRewardPullEnabled"));
+
+        BigInteger distribution = ICX.multiply(BigInteger.valueOf(1_000_000));
+        Map<String, ?> response = Map.of(
+                "isValid", true,
+                "amountToMint", distribution,
+                "day", BigInteger.ONE,
+                "timestamp", getBlockTimestampInSecond().divide(DAY_IN_SECONDS).multiply(DAY_IN_SECONDS));
+        Class<Map<String, ?>> clazz = (Class) Map.class;
+        doReturn(response).when(scoreSpy)
+                .call(clazz, Contracts.REWARD_WEIGHT_CONTROLLER, "precompute", BigInteger.ZERO);
+        doNothing().when(scoreSpy).call(Contracts.REWARD_WEIGHT_CONTROLLER, "refreshWeightSnapshot");
+        Address ommAddress = MOCK_CONTRACT_ADDRESS.get(Contracts.OMM_TOKEN).getAddress();
+        doNothing().when(scoreSpy).call(ommAddress, "mint", distribution);
+        doNothing().when(scoreSpy)
+                .call(eq(ommAddress), eq("transfer"), ArgumentMatchers.<Object>argThat(matcher));
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.OMM_TOKEN), eq("transfer"), ArgumentMatchers.<Object>argThat(matcher));
+        doReturn(workerSupply).when(scoreSpy)
+                .call(BigInteger.class, Contracts.WORKER_TOKEN, "totalSupply");
+
+        BigInteger newIndex = ICX.divide(BigInteger.valueOf(1_000_000));
+        doReturn(newIndex).when(scoreSpy)
+                .call(eq(BigInteger.class), eq(Contracts.REWARD_WEIGHT_CONTROLLER), eq("calculateIntegrateIndex"),
+                        any(Address.class),
+                        eq(ICX), any(BigInteger.class), any(BigInteger.class));
+
+        sm.getBlock().increase(86400);
+        score.invoke(owner, "distribute");
+        return newIndex;
+    }
+
+    private void mockBoostedBalance(Address user, BigInteger bOMMUserBalance, BigInteger bOMMTotalSupply) {
+        Map<String, BigInteger> balance = Map.of("bOMMUserBalance", bOMMUserBalance, "bOMMTotalSupply",
+                bOMMTotalSupply);
+        doReturn(balance).when(scoreSpy).call(Map.class, Contracts.BOOSTED_OMM, "getBalanceAndSupply", user);
+        doReturn(balance).when(scoreSpy).call(Map.class, MOCK_CONTRACT_ADDRESS.get(Contracts.BOOSTED_OMM).getAddress(),
+                "getBalanceAndSupply", user);
+    }
+
     private void mockTokenDistribution() {
-        doReturn(new Address[0]).when(scoreSpy).call(Address[].class, Contracts.WORKER_TOKEN, "getWallets");
-        doReturn(BigInteger.ZERO).when(scoreSpy).call(BigInteger.class, Contracts.WORKER_TOKEN, "totalSupply");
+        Address workerToken = MOCK_CONTRACT_ADDRESS.get(Contracts.WORKER_TOKEN).getAddress();
+        doReturn(new Address[0]).when(scoreSpy).call(Address[].class, workerToken, "getWallets");
+        doReturn(BigInteger.ZERO).when(scoreSpy).call(BigInteger.class, workerToken, "totalSupply");
 
         doNothing().when(scoreSpy)
-                .call(eq(Contracts.OMM_TOKEN), eq("transfer"),
+                .call(eq(MOCK_CONTRACT_ADDRESS.get(Contracts.OMM_TOKEN).getAddress()), eq("transfer"),
                         eq(MOCK_CONTRACT_ADDRESS.get(Contracts.DAO_FUND).getAddress()),
                         any(BigInteger.class));
 
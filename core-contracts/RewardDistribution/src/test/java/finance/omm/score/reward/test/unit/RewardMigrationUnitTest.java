@@ -1,16 +1,20 @@
 package finance.omm.score.reward.test.unit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.iconloop.score.test.Account;
 import finance.omm.libs.address.Contracts;
+import finance.omm.libs.structs.SupplyDetails;
 import finance.omm.libs.test.VarargAnyMatcher;
 import java.math.BigInteger;
+import java.util.Map;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -68,17 +72,18 @@ public class RewardMigrationUnitTest extends RewardDistributionAbstractTest {
 
             VarargAnyMatcher<Object> matcher = new VarargAnyMatcher<>();
 
-            doReturn(addressList).when(scoreSpy).call(eq(Address[].class),eq(Contracts.WORKER_TOKEN),
+            Address workerToken = MOCK_CONTRACT_ADDRESS.get(Contracts.WORKER_TOKEN).getAddress();
+            Address ommToken = MOCK_CONTRACT_ADDRESS.get(Contracts.OMM_TOKEN).getAddress();
+            doReturn(addressList).when(scoreSpy).call(eq(Address[].class), eq(workerToken),
                     eq("getWallets"));
-            doReturn(BigInteger.valueOf(50)).when(scoreSpy).call(eq(BigInteger.class),eq(Contracts.WORKER_TOKEN),
+            doReturn(BigInteger.valueOf(50)).when(scoreSpy).call(eq(BigInteger.class), eq(workerToken),
                     eq("balanceOf"), any());
-            doReturn(BigInteger.valueOf(100)).when(scoreSpy).call(eq(BigInteger.class),eq(Contracts.WORKER_TOKEN),
+            doReturn(BigInteger.valueOf(100)).when(scoreSpy).call(eq(BigInteger.class), eq(workerToken),
                     eq("totalSupply"));
 
             doNothing().when(scoreSpy)
-                    .call(eq(Contracts.OMM_TOKEN), eq("transfer"),
+                    .call(eq(ommToken), eq("transfer"),
                             ArgumentMatchers.<Object>argThat(matcher));
-            doNothing().when(scoreSpy).call(eq(Contracts.OMM_TOKEN), eq("transfer"), any());
 
             score.invoke(owner, "updateAssetIndexes");
             Address daoFund = MOCK_CONTRACT_ADDRESS.get(Contracts.DAO_FUND).getAddress();
@@ -89,5 +94,56 @@ public class RewardMigrationUnitTest extends RewardDistributionAbstractTest {
             };
             score.invoke(owner, "migrateUserRewards", params);
         }
+
+        @DisplayName("should migrate queued users within budget")
+        @Test
+        void should_continue_migration_within_budget() {
+            Address workerToken = MOCK_CONTRACT_ADDRESS.get(Contracts.WORKER_TOKEN).getAddress();
+            doReturn(new Address[0]).when(scoreSpy).call(eq(Address[].class), eq(workerToken),
+                    eq("getWallets"));
+            doReturn(BigInteger.ZERO).when(scoreSpy).call(eq(BigInteger.class), eq(workerToken),
+                    eq("totalSupply"));
+            doNothing().when(scoreSpy).call(eq(MOCK_CONTRACT_ADDRESS.get(Contracts.OMM_TOKEN).getAddress()),
+                    eq("transfer"),
+                    ArgumentMatchers.<Object>argThat(new VarargAnyMatcher<>()));
+            score.invoke(owner, "updateAssetIndexes");
+
+            for (int i = 0; i < 2; i++) {
+                Address asset = Account.newScoreAccount(301 + i).getAddress();
+                scoreSpy.legacyRewards._rewardConfig._assets.add(asset);
+                scoreSpy.legacyRewards._rewardConfig._poolIDMapping.set(asset, 0);
+            }
+            SupplyDetails details = new SupplyDetails();
+            details.decimals = BigInteger.valueOf(18);
+            details.principalUserBalance = BigInteger.TEN;
+            details.principalTotalSupply = BigInteger.TEN;
+            doReturn(details).when(scoreSpy).fetchUserBalance(any(), any(), any());
+
+            Object[] params = new Object[]{
+                    new Address[]{addresses[0], addresses[1], addresses[2]}
+            };
+            score.invoke(owner, "migrateUserRewards", params);
+            verify(scoreSpy, never()).fetchUserBalance(any(), any(), any());
+
+            Executable call = () -> score.invoke(owner, "continueMigration", 0);
+            expectErrorMessage(call, "maxItems should be between 1 and 100");
+
+            call = () -> score.invoke(owner, "continueMigration", 101);
+            expectErrorMessage(call, "maxItems should be between 1 and 100");
+            verify(scoreSpy, never()).fetchUserBalance(any(), any(), any());
+
+            score.invoke(owner, "continueMigration", 4);
+            verify(scoreSpy, times(4)).fetchUserBalance(any(), any(), any());
+            verify(scoreSpy).MigrationProgress(BigInteger.valueOf(4), BigInteger.valueOf(6));
+
+            score.invoke(Account.newScoreAccount(501), "continueMigration", 4);
+            verify(scoreSpy, times(6)).fetchUserBalance(any(), any(), any());
+            verify(scoreSpy).MigrationProgress(BigInteger.valueOf(6), BigInteger.valueOf(6));
+
+            score.invoke(owner, "continueMigration", 4);
+            verify(scoreSpy, times(6)).fetchUserBalance(any(), any(), any());
+            assertEquals(Map.of("position", BigInteger.valueOf(6), "total", BigInteger.valueOf(6)),
+                    score.call("getMigrationProgress"));
+        }
     }
 }
@@ -23,6 +23,7 @@ import finance.omm.score.core.reward.db.AssetWeightDB;
 import finance.omm.score.core.reward.db.TypeWeightDB;
 import finance.omm.score.core.reward.exception.RewardWeightException;
 import finance.omm.score.core.reward.model.Asset;
+import finance.omm.score.core.reward.model.WeightSnapshot;
 import finance.omm.utils.constants.TimeConstants;
 import finance.omm.utils.constants.TimeConstants.Timestamp;
 import finance.omm.utils.math.MathUtils;
@@ -36,6 +37,7 @@ import score.VarDB;
 import score.annotation.EventLog;
 import score.annotation.External;
 import score.annotation.Optional;
+import scorex.util.ArrayList;
 import scorex.util.HashMap;
 
 public class RewardWeightControllerImpl extends AddressProvider implements RewardWeightController {
@@ -44,10 +46,14 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
 
     public static final String TIMESTAMP_AT_START = "timestampAtStart";
 
+    private static final BigInteger MONTH_IN_DAYS = BigInteger.valueOf(30L);
+    private static final int MAX_HISTORY_LIMIT = 100;
+
     public final TypeWeightDB typeWeightDB = new TypeWeightDB("types");
     public final AssetWeightDB assetWeightDB = new AssetWeightDB("assets");
 
     private final VarDB<BigInteger> _timestampAtStart = Context.newVarDB(TIMESTAMP_AT_START, BigInteger.class);
+    private final VarDB<WeightSnapshot> weightSnapshot = Context.newVarDB("weightSnapshot", WeightSnapshot.class);
 
     public RewardWeightControllerImpl(Address addressProvider, BigInteger startTimestamp) {
         super(addressProvider, false);
@@ -83,6 +89,7 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
             weightStruct.address = address;
             _setAssetWeight(key, new WeightStruct[]{weightStruct}, BigInteger.ZERO);
         }
+        rebuildWeightSnapshot();
     }
 
 
@@ -96,6 +103,7 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         TimeConstants.checkIsValidTimestamp(timestamp, Timestamp.SECONDS);
 
         typeWeightDB.setWeights(weights, timestamp);
+        rebuildWeightSnapshot();
         SetTypeWeight(timestamp, "Type weight updated");
     }
 
@@ -121,6 +129,7 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
                 RewardWeightException.notAuthorized("Only Reward distribution contract can call add asset method"));
         checkType(type);
         assetWeightDB.addAsset(type, address, name);
+        rebuildWeightSnapshot();
     }
 
     @External
@@ -128,6 +137,42 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         onlyOrElseThrow(Contracts.GOVERNANCE,
                 RewardWeightException.notAuthorized("Only Governance contract can call set asset weight method"));
         _setAssetWeight(type, weights, timestamp);
+        rebuildWeightSnapshot();
+    }
+
+    /**
+     * copy at most limit asset weight checkpoints of type to packed checkpoint, call again until migrated checkpoint
+     * of the event reaches total checkpoints
+     *
+     * @param type  - type id
+     * @param limit - maximum number of checkpoints to copy
+     */
+    @External
+    public void migrateAssetWeightCheckpoints(String type, int limit) {
+        if (!Context.getOwner().equals(Context.getCaller())) {
+            throw RewardWeightException.notOwner();
+        }
+        checkType(type);
+        if (limit <= 0) {
+            throw RewardWeightException.unknown("limit should be positive (" + limit + ")");
+        }
+        int checkpoint = assetWeightDB.migrateCheckpoints(type, limit);
+        AssetWeightCheckpointsMigrated(type, BigInteger.valueOf(checkpoint),
+                BigInteger.valueOf(assetWeightDB.getCheckpointCount(type)));
+    }
+
+    /**
+     * rebuild weight snapshot once a scheduled type or asset checkpoint has taken effect, setters rebuild it too but
+     * reads fall back to checkpoint search from the scheduled checkpoint till next rebuild. callable by anyone, does
+     * nothing while snapshot is still valid
+     */
+    @External
+    public void refreshWeightSnapshot() {
+        WeightSnapshot snapshot = this.weightSnapshot.get();
+        if (snapshot != null && snapshot.isValid(TimeConstants.currentTimestampInSecond() + 1)) {
+            return;
+        }
+        rebuildWeightSnapshot();
     }
 
     private void _setAssetWeight(String type, WeightStruct[] weights, BigInteger timestamp) {
@@ -139,12 +184,116 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         SetAssetWeight(type, timestamp, "Asset weight updated");
     }
 
+    /**
+     * materialize type weights and asset weights effective after current block. snapshot is valid till next type
+     * checkpoint or asset checkpoint of any type takes effect, reads outside of validity window search checkpoints
+     */
+    private void rebuildWeightSnapshot() {
+        long timestamp = TimeConstants.currentTimestampInSecond() + 1;
+        WeightSnapshot snapshot = new WeightSnapshot();
+
+        int tIndex = typeWeightDB.searchCheckpoint(timestamp);
+        long validFrom = typeWeightDB.getCheckpointTimestamp(tIndex);
+        long validUntil = Long.MAX_VALUE;
+        if (tIndex < typeWeightDB.getCheckpointCount()) {
+            validUntil = typeWeightDB.getCheckpointTimestamp(tIndex + 1);
+        }
+
+        List<String> types = typeWeightDB.getTypes();
+        snapshot.types = new String[types.size()];
+        snapshot.typeWeights = new BigInteger[types.size()];
+        List<Asset> assets = new ArrayList<>();
+        List<Integer> assetTypes = new ArrayList<>();
+        List<BigInteger> assetWeights = new ArrayList<>();
+        for (int i = 0; i < snapshot.types.length; i++) {
+            String type = types.get(i);
+            snapshot.types[i] = type;
+            snapshot.typeWeights[i] = typeWeightDB.getWeight(type, tIndex);
+
+            int aIndex = assetWeightDB.searchCheckpoint(type, timestamp);
+            validFrom = Math.max(validFrom, assetWeightDB.getCheckpointTimestamp(type, aIndex));
+            if (aIndex < assetWeightDB.getCheckpointCount(type)) {
+                validUntil = Math.min(validUntil, assetWeightDB.getCheckpointTimestamp(type, aIndex + 1));
+            }
+
+            ArrayDB<Address> addresses = assetWeightDB.getAssets(type);
+            BigInteger[] weights = assetWeightDB.getWeights(type, aIndex);
+            for (int j = 0; j < weights.length; j++) {
+                Asset asset = assetWeightDB.getAsset(addresses.get(j));
+                if (asset == null) {
+                    continue;
+                }
+                assets.add(asset);
+                assetTypes.add(i);
+                assetWeights.add(weights[j]);
+            }
+        }
+
+        int size = assets.size();
+        snapshot.assets = new Address[size];
+        snapshot.names = new String[size];
+        snapshot.assetTypes = new int[size];
+        snapshot.assetWeights = new BigInteger[size];
+        for (int i = 0; i < size; i++) {
+            Asset asset = assets.get(i);
+            snapshot.assets[i] = asset.address;
+            snapshot.names[i] = asset.name;
+            snapshot.assetTypes[i] = assetTypes.get(i);
+            snapshot.assetWeights[i] = assetWeights.get(i);
+        }
+        snapshot.validFrom = validFrom;
+        snapshot.validUntil = validUntil;
+        this.weightSnapshot.set(snapshot);
+    }
+
+    private WeightSnapshot getWeightSnapshot(BigInteger timestamp) {
+        WeightSnapshot snapshot = this.weightSnapshot.get();
+        if (snapshot == null || !snapshot.isValid(timestamp.longValue())) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    private Map<String, BigInteger> getTypeWeights(BigInteger timestamp, WeightSnapshot snapshot) {
+        if (snapshot == null) {
+            return this.typeWeightDB.weightOfAllTypes(timestamp);
+        }
+        Map<String, BigInteger> result = new HashMap<>();
+        for (int i = 0; i < snapshot.types.length; i++) {
+            result.put(snapshot.types[i], snapshot.typeWeights[i]);
+        }
+        return result;
+    }
+
+    /**
+     * asset name => asset weight multiplied by typeWeight of all assets of type, same as
+     * {@link AssetWeightDB#getAggregatedWeight(String, BigInteger, BigInteger)} when snapshot is valid
+     */
+    private Map<String, BigInteger> getAggregatedWeight(String type, BigInteger typeWeight, BigInteger timestamp,
+            WeightSnapshot snapshot) {
+        if (snapshot == null) {
+            return this.assetWeightDB.getAggregatedWeight(type, typeWeight, timestamp);
+        }
+        BigInteger total = BigInteger.ZERO;
+        Map<String, BigInteger> result = new HashMap<>();
+        for (int i = 0; i < snapshot.assets.length; i++) {
+            if (!snapshot.types[snapshot.assetTypes[i]].equals(type)) {
+                continue;
+            }
+            BigInteger value = exaMultiply(snapshot.assetWeights[i], typeWeight);
+            result.put(snapshot.names[i], value);
+            total = total.add(value);
+        }
+        result.put("total", total);
+        return result;
+    }
+
 
     @External(readonly = true)
     public BigInteger tokenDistributionPerDay(BigInteger _day) {
         if (MathUtils.isLessThan(_day, BigInteger.ZERO)) {
             return BigInteger.ZERO;
-        } else if (MathUtils.isLessThan(_day, BigInteger.valueOf(30L))) {
+        } else if (MathUtils.isLessThan(_day, MONTH_IN_DAYS)) {
             return MILLION;
         } else if (MathUtils.isLessThan(_day, DAYS_PER_YEAR)) {
             return BigInteger.valueOf(4L).multiply(HUNDRED_THOUSAND);
@@ -165,6 +314,29 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         }
     }
 
+    /**
+     * total token distribution of days in range [fromDay, toDay]. daily distribution is constant for first month and
+     * for each year afterwards, so sum is computed per segment instead of per day
+     *
+     * @param fromDay first day (inclusive)
+     * @param toDay   last day (inclusive)
+     * @return total token distribution
+     */
+    private BigInteger cumulativeDistribution(BigInteger fromDay, BigInteger toDay) {
+        BigInteger total = BigInteger.ZERO;
+        BigInteger day = fromDay.max(BigInteger.ZERO);
+        BigInteger endDay = toDay.add(BigInteger.ONE);
+        while (day.compareTo(endDay) < 0) {
+            BigInteger segmentEnd = MathUtils.isLessThan(day, MONTH_IN_DAYS)
+                    ? MONTH_IN_DAYS
+                    : day.divide(DAYS_PER_YEAR).add(BigInteger.ONE).multiply(DAYS_PER_YEAR);
+            segmentEnd = segmentEnd.min(endDay);
+            total = total.add(tokenDistributionPerDay(day).multiply(segmentEnd.subtract(day)));
+            day = segmentEnd;
+        }
+        return total;
+    }
+
     @External(readonly = true)
     public BigInteger getDay() {
         BigInteger timestamp = TimeConstants.getBlockTimestamp();
@@ -218,9 +390,18 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         if (timestamp == null || timestamp.equals(BigInteger.ZERO)) {
             timestamp = getBlockTimestampInSecond();
         }
-        List<String> types = this.typeWeightDB.getTypes();
         Map<String, BigInteger> response = new HashMap<>();
         BigInteger inflationRate = getInflationRateByTimestamp(timestamp).get("ratePerSecond");
+        WeightSnapshot snapshot = getWeightSnapshot(timestamp);
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.assets.length; i++) {
+                BigInteger tWeight = snapshot.typeWeights[snapshot.assetTypes[i]];
+                BigInteger aggregateWeight = exaMultiply(tWeight, snapshot.assetWeights[i]);
+                response.put(snapshot.assets[i].toString(), exaMultiply(inflationRate, aggregateWeight));
+            }
+            return response;
+        }
+        List<String> types = this.typeWeightDB.getTypes();
         for (String type : types) {
             Map<String, BigInteger> typeWeight = typeWeightDB.searchTypeWeight(type, timestamp);
             BigInteger tWeight = typeWeight.get("value");
@@ -243,6 +424,43 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
     @External(readonly = true)
     public BigInteger calculateIntegrateIndex(Address assetAddr, BigInteger totalSupply, BigInteger fromInSeconds,
             BigInteger toInSeconds) {
+        return calculateIntegrateIndex(assetAddr, totalSupply, fromInSeconds, toInSeconds, assetWeightDB.reader(),
+                new HashMap<>(), new HashMap<>());
+    }
+
+    /**
+     * calculate integrate indexes of multiple assets in a single call, type weight and inflation rate lookups are
+     * shared between assets
+     *
+     * @param assets        - asset addresses
+     * @param totalSupplies - total supply (working total) of each asset
+     * @param from          - last index updated timestamp (in seconds) of each asset
+     * @param to            - timestamp in seconds
+     * @return asset address => integrate index
+     */
+    @External(readonly = true)
+    public Map<String, BigInteger> calculateIntegrateIndexes(Address[] assets, BigInteger[] totalSupplies,
+            BigInteger[] from, BigInteger to) {
+        if (assets.length != totalSupplies.length || assets.length != from.length) {
+            throw RewardWeightException.unknown("invalid length of parameters :: assets=" + assets.length
+                    + ", totalSupplies=" + totalSupplies.length + ", from=" + from.length);
+        }
+        AssetWeightDB.Reader assetWeightReader = assetWeightDB.reader();
+        Map<String, Map<String, BigInteger>> typeWeightCache = new HashMap<>();
+        Map<Long, Map<String, BigInteger>> inflationRateCache = new HashMap<>();
+
+        Map<String, BigInteger> response = new HashMap<>();
+        for (int i = 0; i < assets.length; i++) {
+            BigInteger index = calculateIntegrateIndex(assets[i], totalSupplies[i], from[i], to, assetWeightReader,
+                    typeWeightCache, inflationRateCache);
+            response.put(assets[i].toString(), index);
+        }
+        return response;
+    }
+
+    private BigInteger calculateIntegrateIndex(Address assetAddr, BigInteger totalSupply, BigInteger fromInSeconds,
+            BigInteger toInSeconds, AssetWeightDB.Reader assetWeightReader,
+            Map<String, Map<String, BigInteger>> typeWeightCache, Map<Long, Map<String, BigInteger>> inflationRateCache) {
         if (totalSupply.compareTo(BigInteger.ZERO) <= 0) {
             return BigInteger.ZERO;
         }
@@ -254,47 +472,68 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         TimeConstants.checkIsValidTimestamp(fromInSeconds, Timestamp.SECONDS);
         TimeConstants.checkIsValidTimestamp(toInSeconds, Timestamp.SECONDS);
 
-        toInSeconds = toInSeconds.subtract(BigInteger.ONE);
+        long from = fromInSeconds.longValue();
+        long to = toInSeconds.longValue() - 1;
 
         BigInteger integrateIndex = BigInteger.ZERO;
         Asset asset = assetWeightDB.getAsset(assetAddr);
         if (asset == null) {
             return BigInteger.ZERO;
         }
-        BigInteger initialTimestamp = this.getStartTimestamp().divide(SECOND);
-
-        BigInteger prevTimestamp = BigInteger.ZERO;
-
-        while (toInSeconds.compareTo(initialTimestamp) >= 0 && toInSeconds.compareTo(fromInSeconds) > 0
-                && !toInSeconds.equals(prevTimestamp)) {
-            prevTimestamp = toInSeconds;
-            Map<String, BigInteger> result = calculateRewardDistribution(asset, fromInSeconds, toInSeconds);
-            integrateIndex = integrateIndex.add(exaDivide(result.get("totalRewards"), totalSupply));
-            toInSeconds = result.get("timestamp").subtract(BigInteger.ONE);
+        long initialTimestamp = this.getStartTimestamp().longValue() / TimeConstants.MICRO_SECONDS_PER_SECOND;
+
+        /*
+        locate checkpoint of asset weight and type weight once, then move cursors to previous checkpoint while
+        walking over segments. each segment ends at latest of asset checkpoint, type checkpoint, inflation rate change
+        or from timestamp
+         */
+        int aIndex = assetWeightDB.searchCheckpoint(asset.type, to);
+        long aTimestamp = assetWeightDB.getCheckpointTimestamp(asset.type, aIndex);
+        BigInteger aWeight = assetWeightReader.getWeight(asset, aIndex);
+
+        String typeKey = asset.type + "|" + to;
+        Map<String, BigInteger> typeWeight = typeWeightCache.get(typeKey);
+        if (typeWeight == null) {
+            typeWeight = typeWeightDB.searchTypeWeight(asset.type, BigInteger.valueOf(to));
+            typeWeightCache.put(typeKey, typeWeight);
         }
+        int tIndex = typeWeight.get("index").intValue();
+        long tTimestamp = typeWeight.get("timestamp").longValue();
+        BigInteger tWeight = typeWeight.get("value");
 
-        return integrateIndex;
-    }
+        long prevTimestamp = 0L;
 
+        while (to >= initialTimestamp && to > from && to != prevTimestamp) {
+            prevTimestamp = to;
 
-    private Map<String, BigInteger> calculateRewardDistribution(Asset asset, BigInteger fromTimestamp,
-            BigInteger toTimestamp) {
-        Map<String, BigInteger> assetWeight = assetWeightDB.searchAssetWeight(asset, toTimestamp);
-        BigInteger aTimestamp = assetWeight.get("timestamp");
-        BigInteger aWeight = assetWeight.get("value");
+            while (aIndex > 0 && aTimestamp >= to) {
+                aIndex--;
+                aTimestamp = assetWeightDB.getCheckpointTimestamp(asset.type, aIndex);
+                aWeight = assetWeightReader.getWeight(asset, aIndex);
+            }
 
-        Map<String, BigInteger> typeWeight = typeWeightDB.searchTypeWeight(asset.type, toTimestamp);
-        BigInteger tTimestamp = typeWeight.get("timestamp");
-        BigInteger tWeight = typeWeight.get("value");
+            while (tIndex > 0 && tTimestamp >= to) {
+                tIndex--;
+                tTimestamp = typeWeightDB.getCheckpointTimestamp(tIndex);
+                tWeight = typeWeightDB.getWeight(asset.type, tIndex);
+            }
+
+            Map<String, BigInteger> inflationRate = inflationRateCache.get(to);
+            if (inflationRate == null) {
+                inflationRate = getInflationRateByTimestamp(BigInteger.valueOf(to));
+                inflationRateCache.put(to, inflationRate);
+            }
 
-        Map<String, BigInteger> inflationRate = getInflationRateByTimestamp(toTimestamp);
+            long maximum = Math.max(Math.max(aTimestamp, tTimestamp),
+                    Math.max(inflationRate.get("rateChangedOn").longValue(), from));
 
-        BigInteger maximum = aTimestamp.max(tTimestamp).max(inflationRate.get("rateChangedOn")).max(fromTimestamp);
+            BigInteger rate = exaMultiply(exaMultiply(inflationRate.get("ratePerSecond"), tWeight), aWeight);
+            BigInteger totalRewards = rate.multiply(BigInteger.valueOf(to + 1 - maximum));
+            integrateIndex = integrateIndex.add(exaDivide(totalRewards, totalSupply));
+            to = maximum - 1;
+        }
 
-        BigInteger rate = exaMultiply(exaMultiply(inflationRate.get("ratePerSecond"), tWeight), aWeight);
-        BigInteger timeDeltaInSeconds = toTimestamp.add(BigInteger.ONE).subtract(maximum);
-        BigInteger totalReward = rate.multiply(timeDeltaInSeconds);
-        return Map.of("totalRewards", totalReward, "timestamp", maximum);
+        return integrateIndex;
     }
 
 
@@ -318,6 +557,30 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         return BigInteger.valueOf(this.assetWeightDB.getCheckpointCount(type));
     }
 
+    @External(readonly = true)
+    public List<Map<String, ?>> getTypeWeightHistory(int fromCheckpoint, int limit) {
+        checkHistoryRange(fromCheckpoint, limit);
+        return this.typeWeightDB.getHistory(fromCheckpoint, limit);
+    }
+
+    @External(readonly = true)
+    public List<Map<String, ?>> getAssetWeightHistory(String type, int fromCheckpoint, int limit) {
+        checkHistoryRange(fromCheckpoint, limit);
+        if (!typeWeightDB.isTypeExists(type)) {
+            throw RewardWeightException.typeNotExist(type);
+        }
+        return this.assetWeightDB.getHistory(type, fromCheckpoint, limit);
+    }
+
+    private void checkHistoryRange(int fromCheckpoint, int limit) {
+        if (fromCheckpoint < 1) {
+            throw RewardWeightException.unknown("invalid checkpoint :: " + fromCheckpoint);
+        }
+        if (limit <= 0 || limit > MAX_HISTORY_LIMIT) {
+            throw RewardWeightException.unknown("limit should be between 1 and " + MAX_HISTORY_LIMIT);
+        }
+    }
+
     @External(readonly = true)
     public BigInteger getAssetTimestampAtCheckpoint(String typeId, int checkpointId) {
         return assetWeightDB.getTimestamp(typeId, checkpointId);
@@ -364,12 +627,11 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
             timestamp = getBlockTimestampInSecond();
         }
         BigInteger total = BigInteger.ZERO;
-        List<String> types = this.typeWeightDB.getTypes();
+        WeightSnapshot snapshot = getWeightSnapshot(timestamp);
         Map<String, Object> response = new HashMap<>();
-        for (String type : types) {
-            Map<String, BigInteger> typeWeight = typeWeightDB.searchTypeWeight(type, timestamp);
-            BigInteger tWeight = typeWeight.get("value");
-            Map<String, BigInteger> assetWeights = this.assetWeightDB.getAggregatedWeight(type, tWeight, timestamp);
+        for (Map.Entry<String, BigInteger> entry : getTypeWeights(timestamp, snapshot).entrySet()) {
+            String type = entry.getKey();
+            Map<String, BigInteger> assetWeights = getAggregatedWeight(type, entry.getValue(), timestamp, snapshot);
             total = total.add(assetWeights.get("total"));
             response.put(type, assetWeights);
         }
@@ -388,14 +650,12 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
                     .divide(SECOND);
         }
         BigInteger _distribution = tokenDistributionPerDay(_day);
-        List<String> types = this.typeWeightDB.getTypes();
+        WeightSnapshot snapshot = getWeightSnapshot(timestamp);
         Map<String, BigInteger> response = new HashMap<>();
-        for (String type : types) {
-            Map<String, BigInteger> typeWeight = typeWeightDB.searchTypeWeight(type, timestamp);
-            BigInteger tWeight = typeWeight.get("value");
-            BigInteger _distributionValue = exaMultiply(_distribution, tWeight);
-            Map<String, BigInteger> assetWeights = this.assetWeightDB.getAggregatedWeight(type, _distributionValue,
-                    timestamp);
+        for (Map.Entry<String, BigInteger> entry : getTypeWeights(timestamp, snapshot).entrySet()) {
+            BigInteger _distributionValue = exaMultiply(_distribution, entry.getValue());
+            Map<String, BigInteger> assetWeights = getAggregatedWeight(entry.getKey(), _distributionValue, timestamp,
+                    snapshot);
             assetWeights.remove("total");
             response.putAll(assetWeights);
         }
@@ -415,16 +675,14 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
                     .divide(SECOND);
         }
         BigInteger _distribution = tokenDistributionPerDay(_day);
-        List<String> types = this.typeWeightDB.getTypes();
+        WeightSnapshot snapshot = getWeightSnapshot(timestamp);
         Map<String, Object> response = new HashMap<>();
         BigInteger totalRewards = BigInteger.ZERO;
-        for (String type : types) {
-            Map<String, BigInteger> typeWeight = typeWeightDB.searchTypeWeight(type, timestamp);
-            BigInteger tWeight = typeWeight.get("value");
-            BigInteger _distributionValue = exaMultiply(_distribution, tWeight);
-            Map<String, BigInteger> assetWeights = this.assetWeightDB.getAggregatedWeight(type, _distributionValue,
-                    timestamp);
-            response.put(type, assetWeights);
+        for (Map.Entry<String, BigInteger> entry : getTypeWeights(timestamp, snapshot).entrySet()) {
+            BigInteger _distributionValue = exaMultiply(_distribution, entry.getValue());
+            Map<String, BigInteger> assetWeights = getAggregatedWeight(entry.getKey(), _distributionValue, timestamp,
+                    snapshot);
+            response.put(entry.getKey(), assetWeights);
             totalRewards = totalRewards.add(_distributionValue);
         }
         response.put("day", _day);
@@ -479,10 +737,7 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
         }
         BigInteger nextDay = day.add(BigInteger.ONE);
 
-        BigInteger amountToMint = BigInteger.ZERO;
-        for (int i = nextDay.intValue(); i <= today.intValue(); i++) {
-            amountToMint = amountToMint.add(tokenDistributionPerDay(BigInteger.valueOf(i)));
-        }
+        BigInteger amountToMint = cumulativeDistribution(nextDay, today);
 
         response.put("amountToMint", amountToMint);
         response.put("day", today);
@@ -500,4 +755,8 @@ public class RewardWeightControllerImpl extends AddressProvider implements Rewar
     public void SetAssetWeight(String type, BigInteger timestamp, String message) {
     }
 
+    @EventLog(indexed = 1)
+    public void AssetWeightCheckpointsMigrated(String type, BigInteger checkpoint, BigInteger total) {
+    }
+
 }
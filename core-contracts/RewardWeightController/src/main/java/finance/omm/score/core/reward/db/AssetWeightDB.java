@@ -6,14 +6,18 @@ import static finance.omm.utils.math.MathUtils.exaMultiply;
 import finance.omm.libs.structs.WeightStruct;
 import finance.omm.score.core.reward.exception.RewardWeightException;
 import finance.omm.score.core.reward.model.Asset;
+import finance.omm.score.core.reward.model.AssetWeightCheckpoint;
+import finance.omm.utils.constants.TimeConstants;
 import finance.omm.utils.math.MathUtils;
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Map;
 import score.Address;
 import score.ArrayDB;
 import score.BranchDB;
 import score.Context;
 import score.DictDB;
+import scorex.util.ArrayList;
 import scorex.util.HashMap;
 
 public class AssetWeightDB implements Searchable {
@@ -24,8 +28,8 @@ public class AssetWeightDB implements Searchable {
     private final BranchDB<String, BranchDB<Integer, DictDB<Address, BigInteger>>> weightCheckpoint;
     //type => checkPointCounter => sum of weight for checkpoint;
     private final BranchDB<String, DictDB<Integer, BigInteger>> totalCheckpoint;
-    //type => checkPointCounter => timestamp;
-    private final BranchDB<String, DictDB<Integer, BigInteger>> timeCheckpoint;
+    //type => checkPointCounter => timestamp in seconds;
+    private final BranchDB<String, DictDB<Integer, Long>> timeCheckpoint;
     //type => checkPointCounter;
     private final DictDB<String, Integer> checkpointCounter;
 
@@ -34,15 +38,29 @@ public class AssetWeightDB implements Searchable {
     // type => array of assets
     private final BranchDB<String, ArrayDB<Address>> assetMap;
 
+    //type => checkPointCounter => all asset weights and total of checkpoint, timestamp is kept in timeCheckpoint;
+    private final BranchDB<String, DictDB<Integer, AssetWeightCheckpoint>> packedCheckpoint;
+    //type => true if checkpoints of type are stored in packedCheckpoint
+    private final DictDB<String, Boolean> packedTypes;
+    //asset address => index of asset in assetMap
+    private final DictDB<Address, Integer> assetIndex;
+    //type => last checkpoint copied to packedCheckpoint, set only while migration of type is in progress
+    private final DictDB<String, Integer> migratedCheckpoint;
+
 
     public AssetWeightDB(String key) {
         this.checkpointCounter = Context.newDictDB(key + "CheckpointCounter", Integer.class);
         this.totalCheckpoint = Context.newBranchDB(key + "Total", BigInteger.class);
         this.weightCheckpoint = Context.newBranchDB(key + "WeightCheckpoint", BigInteger.class);
-        this.timeCheckpoint = Context.newBranchDB(key + "TimestampCheckpoint", BigInteger.class);
+        this.timeCheckpoint = Context.newBranchDB(key + "TimestampCheckpoint", Long.class);
 
         this.assets = Context.newDictDB(key + "Assets", Asset.class);
         this.assetMap = Context.newBranchDB(key + "TypeAssetMap", Address.class);
+
+        this.packedCheckpoint = Context.newBranchDB(key + "PackedCheckpoint", AssetWeightCheckpoint.class);
+        this.packedTypes = Context.newDictDB(key + "PackedTypes", Boolean.class);
+        this.assetIndex = Context.newDictDB(key + "AssetIndex", Integer.class);
+        this.migratedCheckpoint = Context.newDictDB(key + "MigratedCheckpoint", Integer.class);
     }
 
 
@@ -54,22 +72,39 @@ public class AssetWeightDB implements Searchable {
         Asset asset = new Asset(address, type);
         asset.name = name;
         assets.set(address, asset);
-        assetMap.at(type).add(address);
+        ArrayDB<Address> addresses = assetMap.at(type);
+        assetIndex.set(address, addresses.size());
+        addresses.add(address);
     }
 
 
     public void setWeights(String type, WeightStruct[] weights, BigInteger timestamp) {
         Integer checkpointCounter = this.checkpointCounter.getOrDefault(type, 0);
-        BigInteger latestCheckpoint = this.timeCheckpoint.at(type).getOrDefault(checkpointCounter, BigInteger.ZERO);
-        int compareValue = latestCheckpoint.compareTo(timestamp);
+        long latestCheckpoint = this.timeCheckpoint.at(type).getOrDefault(checkpointCounter, 0L);
+        long timestampInSeconds = timestamp.longValue();
+        int compareValue = Long.compare(latestCheckpoint, timestampInSeconds);
         if (compareValue > 0) {
             throw RewardWeightException.unknown("latest " + latestCheckpoint + " checkpoint exists than " + timestamp);
         }
 
-        if (getBlockTimestampInSecond().compareTo(timestamp) > 0) {
+        if (TimeConstants.currentTimestampInSecond() > timestampInSeconds) {
             throw RewardWeightException.unknown("can't set weight value for old timestamp " + timestamp);
         }
 
+        if (isMigrating(type)) {
+            throw RewardWeightException.unknown(msg("checkpoints migration in progress :: " + type));
+        }
+
+        if (checkpointCounter == 0 && !isPacked(type)) {
+            // type without checkpoint starts with packed checkpoint
+            migrateCheckpoints(type, 1);
+        }
+
+        if (isPacked(type)) {
+            setPackedWeights(type, weights, timestampInSeconds, checkpointCounter, compareValue == 0);
+            return;
+        }
+
         BigInteger total = this.totalCheckpoint.at(type).getOrDefault(checkpointCounter, BigInteger.ZERO);
         if (compareValue == 0) {
             setWeights(type, total, weights, checkpointCounter);
@@ -86,7 +121,7 @@ public class AssetWeightDB implements Searchable {
                 newCheckpoint.set(address, value);
             }
             setWeights(type, total, weights, counter);
-            this.timeCheckpoint.at(type).set(counter, timestamp);
+            this.timeCheckpoint.at(type).set(counter, timestampInSeconds);
             this.checkpointCounter.set(type, counter);
         }
     }
@@ -110,24 +145,112 @@ public class AssetWeightDB implements Searchable {
         this.totalCheckpoint.at(type).set(counter, total);
     }
 
-    private int searchCheckpoint(String type, BigInteger timestamp) {
+    private void setPackedWeights(String type, WeightStruct[] weights, long timestampInSeconds,
+            Integer checkpointCounter, boolean isSameCheckpoint) {
+        AssetWeightCheckpoint checkpoint = getPackedCheckpoint(type, checkpointCounter);
+        Integer counter = checkpointCounter;
+        if (!isSameCheckpoint) {
+            checkpoint = checkpoint.copy();
+            counter = checkpointCounter + 1;
+        }
+
+        BigInteger total = checkpoint.total;
+        for (WeightStruct ws : weights) {
+            Asset asset = this.assets.get(ws.address);
+            if (asset == null || !asset.type.equals(type)) {
+                throw RewardWeightException.unknown(msg("Invalid asset :: " + ws.address));
+            }
+            int index = this.assetIndex.get(ws.address);
+            total = total.subtract(checkpoint.getWeight(index)).add(ws.weight);
+            checkpoint.setWeight(index, ws.weight);
+        }
+
+        if (MathUtils.isGreaterThan(total, HUNDRED_PERCENT)) {
+            throw RewardWeightException.invalidTotalPercentage();
+        }
+        checkpoint.total = total;
+        this.packedCheckpoint.at(type).set(counter, checkpoint);
+
+        if (!isSameCheckpoint) {
+            this.timeCheckpoint.at(type).set(counter, timestampInSeconds);
+            this.checkpointCounter.set(type, counter);
+        }
+    }
+
+    private boolean isPacked(String type) {
+        return this.packedTypes.getOrDefault(type, Boolean.FALSE);
+    }
+
+    private AssetWeightCheckpoint getPackedCheckpoint(String type, int index) {
+        AssetWeightCheckpoint checkpoint = this.packedCheckpoint.at(type).get(index);
+        if (checkpoint == null) {
+            return AssetWeightCheckpoint.empty();
+        }
+        return checkpoint;
+    }
+
+    private boolean isMigrating(String type) {
+        return this.migratedCheckpoint.get(type) != null;
+    }
+
+    /**
+     * copy at most limit checkpoints of type from per asset layout to packed checkpoint, starting after the last
+     * checkpoint copied by previous call. type uses packed checkpoint once all of its checkpoints are copied
+     *
+     * @param type  type id
+     * @param limit maximum number of checkpoints to copy
+     * @return last copied checkpoint
+     */
+    public int migrateCheckpoints(String type, int limit) {
+        if (isPacked(type)) {
+            throw RewardWeightException.unknown(msg("checkpoints already migrated :: " + type));
+        }
+        int from = this.migratedCheckpoint.getOrDefault(type, 0) + 1;
+        ArrayDB<Address> addresses = this.assetMap.at(type);
+        int size = addresses.size();
+        Address[] assetAddresses = new Address[size];
+        for (int i = 0; i < size; i++) {
+            assetAddresses[i] = addresses.get(i);
+            if (from == 1) {
+                this.assetIndex.set(assetAddresses[i], i);
+            }
+        }
+
+        int count = getCheckpointCount(type);
+        int to = count - from < limit ? count : from + limit - 1;
+        for (int counter = from; counter <= to; counter++) {
+            DictDB<Address, BigInteger> dictDB = this.weightCheckpoint.at(type).at(counter);
+            BigInteger[] weights = new BigInteger[size];
+            for (int i = 0; i < size; i++) {
+                weights[i] = dictDB.getOrDefault(assetAddresses[i], BigInteger.ZERO);
+            }
+            this.packedCheckpoint.at(type).set(counter, new AssetWeightCheckpoint(
+                    this.totalCheckpoint.at(type).getOrDefault(counter, BigInteger.ZERO), weights));
+        }
+
+        if (to == count) {
+            this.packedTypes.set(type, Boolean.TRUE);
+            this.migratedCheckpoint.set(type, null);
+        } else {
+            this.migratedCheckpoint.set(type, to);
+        }
+        return to;
+    }
+
+    public int searchCheckpoint(String type, long timestamp) {
         Integer checkpointCount = checkpointCounter.getOrDefault(type, 1);
-        DictDB<Integer, BigInteger> timeCheckpoints = this.timeCheckpoint.at(type);
+        DictDB<Integer, Long> timeCheckpoints = this.timeCheckpoint.at(type);
         return searchCheckpoint(timestamp, checkpointCount, timeCheckpoints);
     }
 
 
     public Map<String, BigInteger> searchAssetWeight(Asset asset, BigInteger timestamp) {
         String typeId = asset.type;
-        int index = searchCheckpoint(typeId, timestamp);
+        int index = searchCheckpoint(typeId, timestamp.longValue());
         return Map.of(
                 "index", BigInteger.valueOf(index),
-                "value", this.weightCheckpoint.at(typeId)
-                        .at(index)
-                        .getOrDefault(asset.address,
-                                BigInteger.ZERO),
-                "timestamp", this.timeCheckpoint.at(typeId)
-                        .getOrDefault(index, BigInteger.ZERO)
+                "value", getWeight(asset, index),
+                "timestamp", BigInteger.valueOf(getCheckpointTimestamp(typeId, index))
         );
     }
 
@@ -137,7 +260,10 @@ public class AssetWeightDB implements Searchable {
     }
 
     public BigInteger getTotal(String typeId, BigInteger timestamp) {
-        int index = searchCheckpoint(typeId, timestamp);
+        int index = searchCheckpoint(typeId, timestamp.longValue());
+        if (isPacked(typeId)) {
+            return getPackedCheckpoint(typeId, index).total;
+        }
         return this.totalCheckpoint.at(typeId).getOrDefault(index, BigInteger.ZERO);
     }
 
@@ -150,35 +276,122 @@ public class AssetWeightDB implements Searchable {
     }
 
     public BigInteger getTimestamp(String typeId, int index) {
-        return this.timeCheckpoint.at(typeId).get(index);
+        Long timestamp = this.timeCheckpoint.at(typeId).get(index);
+        return timestamp == null ? null : BigInteger.valueOf(timestamp);
+    }
+
+    /**
+     * timestamp in seconds of checkpoint, 0 if checkpoint doesn't exist
+     */
+    public long getCheckpointTimestamp(String typeId, int index) {
+        return this.timeCheckpoint.at(typeId).getOrDefault(index, 0L);
+    }
+
+    /**
+     * weight of asset at checkpoint, reads packed flag, asset index and whole packed checkpoint for a single weight.
+     * walks over many checkpoints or assets should use {@link #reader()}
+     */
+    public BigInteger getWeight(Asset asset, int index) {
+        if (isPacked(asset.type)) {
+            return getPackedCheckpoint(asset.type, index).getWeight(this.assetIndex.getOrDefault(asset.address, -1));
+        }
+        return this.weightCheckpoint.at(asset.type).at(index).getOrDefault(asset.address, BigInteger.ZERO);
     }
 
     public Integer getCheckpointCount(String typeId) {
         return checkpointCounter.getOrDefault(typeId, 0);
     }
 
+    /**
+     * checkpoints of type from fromCheckpoint, at most limit checkpoints are read sequentially. checkpoints start from
+     * 1, so fromCheckpoint 0 is read from 1
+     *
+     * @return list of checkpoint id, timestamp, total and asset address => weight of each checkpoint
+     */
+    public List<Map<String, ?>> getHistory(String type, int fromCheckpoint, int limit) {
+        List<Map<String, ?>> result = new ArrayList<>();
+        int toCheckpoint = Math.min(getCheckpointCount(type), fromCheckpoint + limit - 1);
+        fromCheckpoint = Math.max(fromCheckpoint, 1);
+        if (fromCheckpoint > toCheckpoint) {
+            return result;
+        }
+
+        ArrayDB<Address> addresses = this.assetMap.at(type);
+        int size = addresses.size();
+        Address[] assetAddresses = new Address[size];
+        for (int i = 0; i < size; i++) {
+            assetAddresses[i] = addresses.get(i);
+        }
+        boolean isPacked = isPacked(type);
+
+        for (int index = fromCheckpoint; index <= toCheckpoint; index++) {
+            Map<String, BigInteger> weights = new HashMap<>();
+            BigInteger total;
+            if (isPacked) {
+                AssetWeightCheckpoint checkpoint = getPackedCheckpoint(type, index);
+                for (int i = 0; i < size; i++) {
+                    weights.put(assetAddresses[i].toString(), checkpoint.getWeight(i));
+                }
+                total = checkpoint.total;
+            } else {
+                DictDB<Address, BigInteger> dictDB = this.weightCheckpoint.at(type).at(index);
+                for (int i = 0; i < size; i++) {
+                    weights.put(assetAddresses[i].toString(), dictDB.getOrDefault(assetAddresses[i], BigInteger.ZERO));
+                }
+                total = this.totalCheckpoint.at(type).getOrDefault(index, BigInteger.ZERO);
+            }
+            result.add(Map.of(
+                    "checkpoint", BigInteger.valueOf(index),
+                    "timestamp", BigInteger.valueOf(getCheckpointTimestamp(type, index)),
+                    "total", total,
+                    "weights", weights
+            ));
+        }
+        return result;
+    }
+
     public Map<String, BigInteger> getWeightByTimestamp(String type, BigInteger timestamp) {
-        DictDB<Address, BigInteger> dictDB = getCheckpoint(type, timestamp);
+        BigInteger[] weights = getCheckpoint(type, timestamp);
         Map<String, BigInteger> result = new HashMap<>();
 
         ArrayDB<Address> addresses = this.assetMap.at(type);
 
         for (int i = 0; i < addresses.size(); i++) {
             Address address = addresses.get(i);
-            BigInteger value = dictDB.getOrDefault(address, BigInteger.ZERO);
-            result.put(address.toString(), value);
+            result.put(address.toString(), weights[i]);
         }
 
         return result;
     }
 
-    private DictDB<Address, BigInteger> getCheckpoint(String type, BigInteger timestamp) {
-        int index = searchCheckpoint(type, timestamp);
-        return this.weightCheckpoint.at(type).at(index);
+    private BigInteger[] getCheckpoint(String type, BigInteger timestamp) {
+        return getWeights(type, searchCheckpoint(type, timestamp.longValue()));
+    }
+
+    /**
+     * weights of all assets of type at checkpoint, indexed by position of asset in type asset list. packed checkpoint
+     * is read once
+     */
+    public BigInteger[] getWeights(String type, int index) {
+        ArrayDB<Address> addresses = this.assetMap.at(type);
+        int size = addresses.size();
+        BigInteger[] weights = new BigInteger[size];
+        if (isPacked(type)) {
+            AssetWeightCheckpoint checkpoint = getPackedCheckpoint(type, index);
+            for (int i = 0; i < size; i++) {
+                weights[i] = checkpoint.getWeight(i);
+            }
+        } else {
+            DictDB<Address, BigInteger> dictDB = this.weightCheckpoint.at(type).at(index);
+            for (int i = 0; i < size; i++) {
+                weights[i] = dictDB.getOrDefault(addresses.get(i), BigInteger.ZERO);
+            }
+        }
+        return weights;
     }
 
     public Map<String, BigInteger> getAggregatedWeight(String type, BigInteger typeWeight, BigInteger timestamp) {
-        DictDB<Address, BigInteger> dictDB = getCheckpoint(type, timestamp);
+        BigInteger[] weights = getCheckpoint(type, timestamp);
         BigInteger total = BigInteger.ZERO;
         Map<String, BigInteger> result = new HashMap<>();
 
@@ -189,7 +402,7 @@ public class AssetWeightDB implements Searchable {
             Asset asset = this.assets.get(address);
             if (asset != null) {
                 String name = asset.name;
-                BigInteger value = exaMultiply(dictDB.getOrDefault(address, BigInteger.ZERO), typeWeight);
+                BigInteger value = exaMultiply(weights[i], typeWeight);
                 result.put(name, value);
                 total = total.add(value);
             }
@@ -202,4 +415,49 @@ public class AssetWeightDB implements Searchable {
         return this.assetMap.at(type);
     }
 
+    /**
+     * new reader for a walk over checkpoints of one or more assets, create one per call
+     */
+    public Reader reader() {
+        return new Reader();
+    }
+
+    /**
+     * reads asset weights at checkpoints, packed flag of each type and index of each asset are read once and each
+     * packed checkpoint is read once. values are kept in memory of the reader only
+     */
+    public class Reader {
+
+        private final Map<String, Boolean> packed = new HashMap<>();
+        private final Map<Address, Integer> positions = new HashMap<>();
+        private final Map<String, AssetWeightCheckpoint> checkpoints = new HashMap<>();
+
+        private Reader() {
+        }
+
+        public BigInteger getWeight(Asset asset, int index) {
+            Boolean isPacked = packed.get(asset.type);
+            if (isPacked == null) {
+                isPacked = isPacked(asset.type);
+                packed.put(asset.type, isPacked);
+            }
+            if (!isPacked) {
+                return weightCheckpoint.at(asset.type).at(index).getOrDefault(asset.address, BigInteger.ZERO);
+            }
+
+            Integer position = positions.get(asset.address);
+            if (position == null) {
+                position = assetIndex.getOrDefault(asset.address, -1);
+                positions.put(asset.address, position);
+            }
+            String key = asset.type + "|" + index;
+            AssetWeightCheckpoint checkpoint = checkpoints.get(key);
+            if (checkpoint == null) {
+                checkpoint = getPackedCheckpoint(asset.type, index);
+                checkpoints.put(key, checkpoint);
+            }
+            return checkpoint.getWeight(position);
+        }
+    }
+
 }
@@ -6,10 +6,17 @@ import score.DictDB;
 
 public interface Searchable {
 
-    default int searchCheckpoint(BigInteger timestamp, Integer checkpointCount,
-            DictDB<Integer, BigInteger> timeCheckpoints) {
-        int compareWithLatestTimestamp = timeCheckpoints.getOrDefault(checkpointCount, BigInteger.ZERO)
-                .compareTo(timestamp);
+    /*
+    number of backward probes from latest checkpoint before falling back to binary search
+     */
+    int GALLOP_PROBES = 4;
+
+    /**
+     * search latest checkpoint before timestamp, probes backward from latest checkpoint at distance 1, 2, 4... so
+     * recent timestamps are found in few reads, historical timestamps fall back to binary search on remaining range
+     */
+    default int searchCheckpoint(long timestamp, int checkpointCount, DictDB<Integer, Long> timeCheckpoints) {
+        int compareWithLatestTimestamp = Long.compare(timeCheckpoints.getOrDefault(checkpointCount, 0L), timestamp);
 
         if (compareWithLatestTimestamp < 0) {
             return checkpointCount;
@@ -22,11 +29,34 @@ public interface Searchable {
             return checkpointCount - 1;
         }
 
-        int lower = 0, upper = checkpointCount;
+        int lower = 0, upper = checkpointCount - 1;
+        int step = 1;
+        for (int probe = 0; probe < GALLOP_PROBES; probe++) {
+            int index = checkpointCount - step;
+            if (index <= 0) {
+                break;
+            }
+            int value = Long.compare(timeCheckpoints.getOrDefault(index, 0L), timestamp);
+            if (value < 0) {
+                lower = index;
+                break;
+            } else if (value == 0) {
+                return index - 1;
+            }
+            upper = index - 1;
+            step = step * 2;
+        }
+
+        return searchCheckpoint(timestamp, lower, upper, timeCheckpoints);
+    }
+
+    /**
+     * binary search of latest checkpoint before timestamp between lower and upper checkpoints
+     */
+    default int searchCheckpoint(long timestamp, int lower, int upper, DictDB<Integer, Long> timeCheckpoints) {
         while (lower < upper) {
             int mid = (upper + lower + 1) / 2;
-            BigInteger midTimestamp = timeCheckpoints.getOrDefault(mid, BigInteger.ZERO);
-            int value = midTimestamp.compareTo(timestamp);
+            int value = Long.compare(timeCheckpoints.getOrDefault(mid, 0L), timestamp);
             if (value < 0) {
                 lower = mid;
             } else if (value > 0) {
@@ -4,6 +4,7 @@ import static finance.omm.utils.math.MathUtils.HUNDRED_PERCENT;
 
 import finance.omm.libs.structs.TypeWeightStruct;
 import finance.omm.score.core.reward.exception.RewardWeightException;
+import finance.omm.utils.constants.TimeConstants;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
@@ -11,19 +12,24 @@ import score.BranchDB;
 import score.Context;
 import score.DictDB;
 import score.VarDB;
+import scorex.util.ArrayList;
 import scorex.util.HashMap;
 
 public class TypeWeightDB implements Searchable {
 
     private final static String TAG = "Type Weight DB";
+    // full snapshot of all type weights is stored at every SNAPSHOT_INTERVAL checkpoint
+    public final static int SNAPSHOT_INTERVAL = 8;
     private final TypeDB types;
     //checkpoint -> name of type -> weight value
     private final BranchDB<Integer, DictDB<String, BigInteger>> wCheckpoint;
     //checkpoint -> sum of all weights at checkpoint
     private final DictDB<Integer, BigInteger> totalAtCheckpoint;
-    //checkpoint -> timestamp
-    private final DictDB<Integer, BigInteger> timeCheckpoint;
+    //checkpoint -> timestamp in seconds
+    private final DictDB<Integer, Long> timeCheckpoint;
     private final VarDB<Integer> checkpointCounter;
+    //checkpoint -> previous checkpoint, only for delta checkpoint which stores changed types only
+    private final DictDB<Integer, Integer> deltaBase;
 
 
     public TypeWeightDB(String id) {
@@ -31,7 +37,8 @@ public class TypeWeightDB implements Searchable {
         this.checkpointCounter = Context.newVarDB(id + "CheckpointCounter", Integer.class);
         this.totalAtCheckpoint = Context.newDictDB(id + "Total", BigInteger.class);
         this.wCheckpoint = Context.newBranchDB(id + "WeightCheckpoint", BigInteger.class);
-        this.timeCheckpoint = Context.newDictDB(id + "TimestampCheckpoint", BigInteger.class);
+        this.timeCheckpoint = Context.newDictDB(id + "TimestampCheckpoint", Long.class);
+        this.deltaBase = Context.newDictDB(id + "DeltaBase", Integer.class);
     }
 
     public boolean isTypeExists(String type) {
@@ -48,14 +55,15 @@ public class TypeWeightDB implements Searchable {
 
     public void setWeights(TypeWeightStruct[] weights, BigInteger timestamp) {
         Integer checkpointCounter = this.checkpointCounter.getOrDefault(0);
-        BigInteger latestCheckpoint = this.timeCheckpoint.getOrDefault(checkpointCounter, BigInteger.ZERO);
-        int compareValue = latestCheckpoint.compareTo(timestamp);
+        long latestCheckpoint = this.timeCheckpoint.getOrDefault(checkpointCounter, 0L);
+        long timestampInSeconds = timestamp.longValue();
+        int compareValue = Long.compare(latestCheckpoint, timestampInSeconds);
 
         if (compareValue > 0) {
             throw RewardWeightException.unknown("latest " + latestCheckpoint + " checkpoint exists than " + timestamp);
         }
 
-        if (getBlockTimestampInSecond().compareTo(timestamp) > 0) {
+        if (TimeConstants.currentTimestampInSecond() > timestampInSeconds) {
             throw RewardWeightException.unknown("can't set weight value for old timestamp " + timestamp);
         }
 
@@ -64,16 +72,18 @@ public class TypeWeightDB implements Searchable {
         if (compareValue == 0) {
             setWeights(weights, total, checkpointCounter);
         } else {
-            DictDB<String, BigInteger> dictDB = this.wCheckpoint.at(checkpointCounter);
             Integer counter = checkpointCounter + 1;
-            DictDB<String, BigInteger> newCheckPoints = this.wCheckpoint.at(counter);
-            for (String key : this.types.keySet()) {
-                BigInteger value = dictDB.get(key);
-                newCheckPoints.set(key, value);
+            if (counter % SNAPSHOT_INTERVAL == 0) {
+                DictDB<String, BigInteger> newCheckPoints = this.wCheckpoint.at(counter);
+                for (String key : this.types.keySet()) {
+                    newCheckPoints.set(key, getWeight(key, checkpointCounter));
+                }
+            } else {
+                this.deltaBase.set(counter, checkpointCounter);
             }
 
             setWeights(weights, total, counter);
-            this.timeCheckpoint.set(counter, timestamp);
+            this.timeCheckpoint.set(counter, timestampInSeconds);
             this.checkpointCounter.set(counter);
         }
 
@@ -85,7 +95,7 @@ public class TypeWeightDB implements Searchable {
             if (!isTypeExists(tw.key)) {
                 throw RewardWeightException.unknown(msg("Invalid type key :: " + tw.key));
             }
-            BigInteger prevWeight = dictDB.getOrDefault(tw.key, BigInteger.ZERO);
+            BigInteger prevWeight = getWeight(tw.key, counter);
             total = total.subtract(prevWeight).add(tw.weight);
             dictDB.set(tw.key, tw.weight);
         }
@@ -95,14 +105,14 @@ public class TypeWeightDB implements Searchable {
         this.totalAtCheckpoint.set(counter, total);
     }
 
-    private int searchCheckpoint(BigInteger timestamp) {
+    public int searchCheckpoint(long timestamp) {
         Integer checkpointCount = checkpointCounter.getOrDefault(1);
         return searchCheckpoint(timestamp, checkpointCount, this.timeCheckpoint);
     }
 
 
     public BigInteger getTotal(BigInteger timestamp) {
-        int index = searchCheckpoint(timestamp);
+        int index = searchCheckpoint(timestamp.longValue());
         return this.totalAtCheckpoint.get(index);
     }
 
@@ -115,14 +125,38 @@ public class TypeWeightDB implements Searchable {
     }
 
     public BigInteger getTimestamp(int index) {
-        return this.timeCheckpoint.get(index);
+        Long timestamp = this.timeCheckpoint.get(index);
+        return timestamp == null ? null : BigInteger.valueOf(timestamp);
+    }
+
+    /**
+     * timestamp in seconds of checkpoint, 0 if checkpoint doesn't exist
+     */
+    public long getCheckpointTimestamp(int index) {
+        return this.timeCheckpoint.getOrDefault(index, 0L);
+    }
+
+    /**
+     * weight of type at checkpoint, delta checkpoint resolves unchanged type from previous checkpoints till full
+     * snapshot
+     */
+    public BigInteger getWeight(String type, int index) {
+        Integer checkpoint = index;
+        while (checkpoint != null) {
+            BigInteger value = this.wCheckpoint.at(checkpoint).get(type);
+            if (value != null) {
+                return value;
+            }
+            checkpoint = this.deltaBase.get(checkpoint);
+        }
+        return BigInteger.ZERO;
     }
 
     public Map<String, BigInteger> weightOfAllTypes(BigInteger timestamp) {
+        int index = searchCheckpoint(timestamp.longValue());
         Map<String, BigInteger> response = new HashMap<>();
         for (String key : types.keySet()) {
-            Map<String, BigInteger> map = searchTypeWeight(key, timestamp);
-            response.put(key, map.get("value"));
+            response.put(key, getWeight(key, index));
         }
         return response;
     }
@@ -134,11 +168,9 @@ public class TypeWeightDB implements Searchable {
     }
 
     public Map<String, BigInteger> searchTypeWeight(String type, BigInteger timestamp) {
-        int index = searchCheckpoint(timestamp);
-        return Map.of("index", BigInteger.valueOf(index), "value", this.wCheckpoint.at(index)
-                        .getOrDefault(type,
-                                BigInteger.ZERO),
-                "timestamp", this.timeCheckpoint.getOrDefault(index, BigInteger.ZERO));
+        int index = searchCheckpoint(timestamp.longValue());
+        return Map.of("index", BigInteger.valueOf(index), "value", getWeight(type, index),
+                "timestamp", BigInteger.valueOf(getCheckpointTimestamp(index)));
     }
 
 
@@ -146,12 +178,50 @@ public class TypeWeightDB implements Searchable {
         return checkpointCounter.getOrDefault(0);
     }
 
+    /**
+     * checkpoints from fromCheckpoint, at most limit checkpoints are read sequentially. checkpoints start from 1, so
+     * fromCheckpoint 0 is read from 1. weights of delta checkpoint are resolved from weights of previous checkpoint in
+     * the page
+     *
+     * @return list of checkpoint id, timestamp, total and type => weight of each checkpoint
+     */
+    public List<Map<String, ?>> getHistory(int fromCheckpoint, int limit) {
+        List<Map<String, ?>> result = new ArrayList<>();
+        int toCheckpoint = Math.min(getCheckpointCount(), fromCheckpoint + limit - 1);
+        fromCheckpoint = Math.max(fromCheckpoint, 1);
+        Map<String, BigInteger> previous = null;
+        List<String> types = this.types.keySet();
+        for (int index = fromCheckpoint; index <= toCheckpoint; index++) {
+            Map<String, BigInteger> weights = new HashMap<>();
+            Integer base = this.deltaBase.get(index);
+            DictDB<String, BigInteger> dictDB = this.wCheckpoint.at(index);
+            for (String type : types) {
+                BigInteger value = dictDB.get(type);
+                if (value == null) {
+                    if (previous != null && base != null && base == index - 1) {
+                        value = previous.get(type);
+                    } else {
+                        value = getWeight(type, index);
+                    }
+                }
+                weights.put(type, value);
+            }
+            result.add(Map.of(
+                    "checkpoint", BigInteger.valueOf(index),
+                    "timestamp", BigInteger.valueOf(getCheckpointTimestamp(index)),
+                    "total", this.totalAtCheckpoint.getOrDefault(index, BigInteger.ZERO),
+                    "weights", weights
+            ));
+            previous = weights;
+        }
+        return result;
+    }
+
     public Map<String, BigInteger> getWeightByTimestamp(BigInteger timestamp) {
-        int index = searchCheckpoint(timestamp);
-        DictDB<String, BigInteger> dictDB = this.wCheckpoint.at(index);
+        int index = searchCheckpoint(timestamp.longValue());
         Map<String, BigInteger> result = new HashMap<>();
         for (String key : this.types.keySet()) {
-            result.put(key, dictDB.getOrDefault(key, BigInteger.ZERO));
+            result.put(key, getWeight(key, index));
         }
         return result;
     }
@@ -0,0 +1,77 @@
+package finance.omm.score.core.reward.model;
+
+import java.math.BigInteger;
+import java.util.List;
+import score.ObjectReader;
+import score.ObjectWriter;
+import scorex.util.ArrayList;
+
+/**
+ * all asset weights of a type at a checkpoint, weights are indexed by position of asset in type asset list. timestamp
+ * of checkpoint is not part of the record, time checkpoint of asset weight DB is the only copy
+ */
+public class AssetWeightCheckpoint {
+
+    public BigInteger total;
+    public BigInteger[] weights;
+
+    public AssetWeightCheckpoint(BigInteger total, BigInteger[] weights) {
+        this.total = total;
+        this.weights = weights;
+    }
+
+    public static AssetWeightCheckpoint empty() {
+        return new AssetWeightCheckpoint(BigInteger.ZERO, new BigInteger[0]);
+    }
+
+    public BigInteger getWeight(int index) {
+        if (index < 0 || index >= weights.length || weights[index] == null) {
+            return BigInteger.ZERO;
+        }
+        return weights[index];
+    }
+
+    public void setWeight(int index, BigInteger weight) {
+        if (index >= weights.length) {
+            BigInteger[] values = new BigInteger[index + 1];
+            System.arraycopy(weights, 0, values, 0, weights.length);
+            weights = values;
+        }
+        weights[index] = weight;
+    }
+
+    public AssetWeightCheckpoint copy() {
+        BigInteger[] values = new BigInteger[weights.length];
+        System.arraycopy(weights, 0, values, 0, weights.length);
+        return new AssetWeightCheckpoint(total, values);
+    }
+
+    public static void writeObject(ObjectWriter w, AssetWeightCheckpoint c) {
+        w.beginList(2);
+        w.write(c.total);
+        w.beginList(c.weights.length);
+        for (BigInteger weight : c.weights) {
+            w.write(weight == null ? BigInteger.ZERO : weight);
+        }
+        w.end();
+        w.end();
+    }
+
+    public static AssetWeightCheckpoint readObject(ObjectReader r) {
+        r.beginList();
+        BigInteger total = r.readBigInteger();
+        r.beginList();
+        List<BigInteger> values = new ArrayList<>();
+        while (r.hasNext()) {
+            values.add(r.readBigInteger());
+        }
+        r.end();
+        r.end();
+        BigInteger[] weights = new BigInteger[values.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = values.get(i);
+        }
+        return new AssetWeightCheckpoint(total, weights);
+    }
+
+}
@@ -0,0 +1,105 @@
+package finance.omm.score.core.reward.model;
+
+import java.math.BigInteger;
+import java.util.List;
+import score.Address;
+import score.ObjectReader;
+import score.ObjectWriter;
+import scorex.util.ArrayList;
+
+/**
+ * type weights and asset weights of all assets effective between validFrom (exclusive) and validUntil (inclusive)
+ * timestamps in seconds, assets are indexed by position and refer their type by index of types
+ */
+public class WeightSnapshot {
+
+    public long validFrom;
+    public long validUntil;
+    public String[] types;
+    public BigInteger[] typeWeights;
+    public Address[] assets;
+    public String[] names;
+    public int[] assetTypes;
+    public BigInteger[] assetWeights;
+
+    public boolean isValid(long timestamp) {
+        return validFrom < timestamp && timestamp <= validUntil;
+    }
+
+    public static void writeObject(ObjectWriter w, WeightSnapshot s) {
+        w.beginList(4);
+        w.write(s.validFrom);
+        w.write(s.validUntil);
+        w.beginList(s.types.length);
+        for (int i = 0; i < s.types.length; i++) {
+            w.beginList(2);
+            w.write(s.types[i]);
+            w.write(s.typeWeights[i]);
+            w.end();
+        }
+        w.end();
+        w.beginList(s.assets.length);
+        for (int i = 0; i < s.assets.length; i++) {
+            w.beginList(4);
+            w.write(s.assets[i]);
+            w.write(s.names[i]);
+            w.write(s.assetTypes[i]);
+            w.write(s.assetWeights[i]);
+            w.end();
+        }
+        w.end();
+        w.end();
+    }
+
+    public static WeightSnapshot readObject(ObjectReader r) {
+        WeightSnapshot s = new WeightSnapshot();
+        r.beginList();
+        s.validFrom = r.readLong();
+        s.validUntil = r.readLong();
+
+        List<String> types = new ArrayList<>();
+        List<BigInteger> typeWeights = new ArrayList<>();
+        r.beginList();
+        while (r.hasNext()) {
+            r.beginList();
+            types.add(r.readString());
+            typeWeights.add(r.readBigInteger());
+            r.end();
+        }
+        r.end();
+
+        List<Address> assets = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<Integer> assetTypes = new ArrayList<>();
+        List<BigInteger> assetWeights = new ArrayList<>();
+        r.beginList();
+        while (r.hasNext()) {
+            r.beginList();
+            assets.add(r.readAddress());
+            names.add(r.readString());
+            assetTypes.add(r.readInt());
+            assetWeights.add(r.readBigInteger());
+            r.end();
+        }
+        r.end();
+        r.end();
+
+        s.types = new String[types.size()];
+        s.typeWeights = new BigInteger[types.size()];
+        for (int i = 0; i < s.types.length; i++) {
+            s.types[i] = types.get(i);
+            s.typeWeights[i] = typeWeights.get(i);
+        }
+        s.assets = new Address[assets.size()];
+        s.names = new String[assets.size()];
+        s.assetTypes = new int[assets.size()];
+        s.assetWeights = new BigInteger[assets.size()];
+        for (int i = 0; i < s.assets.length; i++) {
+            s.assets[i] = assets.get(i);
+            s.names[i] = names.get(i);
+            s.assetTypes[i] = assetTypes.get(i);
+            s.assetWeights[i] = assetWeights.get(i);
+        }
+        return s;
+    }
+}
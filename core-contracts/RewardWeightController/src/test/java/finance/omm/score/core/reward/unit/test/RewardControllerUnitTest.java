@@ -2,12 +2,18 @@ package finance.omm.score.core.reward.unit.test;
 
 
 import static finance.omm.utils.constants.TimeConstants.SECOND;
+import static finance.omm.utils.math.MathUtils.exaDivide;
+import static finance.omm.utils.math.MathUtils.exaMultiply;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import com.iconloop.score.test.Account;
@@ -19,11 +25,17 @@ import finance.omm.libs.structs.AddressDetails;
 import finance.omm.libs.structs.TypeWeightStruct;
 import finance.omm.libs.structs.WeightStruct;
 import finance.omm.score.core.reward.RewardWeightControllerImpl;
+import finance.omm.score.core.reward.db.AssetWeightDB;
+import finance.omm.score.core.reward.db.Searchable;
+import finance.omm.score.core.reward.model.WeightSnapshot;
 import finance.omm.utils.constants.TimeConstants;
+import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.math.RoundingMode;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -34,6 +46,9 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.function.Executable;
 import score.Address;
+import score.BranchDB;
+import score.DictDB;
+import score.VarDB;
 
 public class RewardControllerUnitTest extends TestBase {
 
@@ -241,6 +256,54 @@ public class RewardControllerUnitTest extends TestBase {
 
     }
 
+    @DisplayName("type weight snapshot with partial updates")
+    @Test
+    public void testTypeWeightDeltaSnapshot() {
+        initTypeWeight(BigInteger.ZERO, 10L, 20L, 30L, 40L);
+
+        Map<Integer, BigInteger> snapshots = new HashMap<>();
+        Map<Integer, Map<Integer, Long>> values = new HashMap<>();
+        snapshots.put(1, getTimestamp());
+        values.put(1, new HashMap<>() {{
+            put(1, 10L);
+            put(2, 20L);
+            put(3, 30L);
+            put(4, 40L);
+        }});
+        Random r = new Random(42);
+        for (int i = 2; i <= 20; i++) {
+            sm.getBlock().increase(r.nextInt(1000) + 1);
+            Map<Integer, Long> map = new HashMap<>(values.get(i - 1));
+            // move weight between two types only
+            int from = r.nextInt(4) + 1;
+            int to = from % 4 + 1;
+            long delta = r.nextInt(map.get(from).intValue() + 1);
+            map.put(from, map.get(from) - delta);
+            map.put(to, map.get(to) + delta);
+            setTypeWeight(BigInteger.ZERO, new HashMap<>() {{
+                put(from, map.get(from));
+                put(to, map.get(to));
+            }});
+            snapshots.put(i, getTimestamp());
+            values.put(i, map);
+        }
+
+        assertEquals(BigInteger.valueOf(20), score.call("getTypeCheckpointCount"));
+
+        for (int i = 20; i >= 1; i--) {
+            Map<String, BigInteger> weights = (Map<String, BigInteger>) score.call("getTypeWeightByTimestamp",
+                    snapshots.get(i).add(BigInteger.ONE));
+            for (Map.Entry<Integer, Long> entry : values.get(i).entrySet()) {
+                String id = "Key-" + entry.getKey();
+                BigInteger expected = BigInteger.valueOf(entry.getValue())
+                        .multiply(ICX)
+                        .divide(BigInteger.valueOf(100));
+                assertEquals(expected, weights.get(id), "data not match at " + i + " " + id);
+                assertEquals(expected, score.call("getTypeWeight", id, snapshots.get(i).add(BigInteger.ONE)));
+            }
+        }
+    }
+
     @DisplayName("test add asset")
     @Test
     public void testAddAsset() {
@@ -397,6 +460,131 @@ public class RewardControllerUnitTest extends TestBase {
     }
 
 
+    @DisplayName("migrate asset weight checkpoints")
+    @Test
+    public void testMigrateAssetWeightCheckpoints() {
+        initTypeWeight(BigInteger.ZERO, 25L, 75L);
+        String type = TYPE_ID_PREFIX + 1;
+        initAssetWeight(BigInteger.ZERO, 1, new HashMap<>() {{
+            put(addresses[0], 10L);
+            put(addresses[1], 20L);
+        }});
+
+        Executable call = () -> score.invoke(mockAddress.get(Contracts.GOVERNANCE), "migrateAssetWeightCheckpoints",
+                type, 10);
+        expectErrorMessage(call, "require owner access");
+
+        call = () -> score.invoke(owner, "migrateAssetWeightCheckpoints", type, 0);
+        expectErrorMessage(call, "limit should be positive (0)");
+
+        call = () -> score.invoke(owner, "migrateAssetWeightCheckpoints", type, 10);
+        expectErrorMessage(call, "Asset Weight DB :: checkpoints already migrated :: " + type);
+
+        sm.getBlock().increase(100);
+        addAsset(type, addresses[2]);
+        setAssetWeight(BigInteger.ZERO, type, new HashMap<>() {{
+            put(addresses[1], 5L);
+            put(addresses[2], 30L);
+        }});
+        sm.getBlock().increase(1);
+
+        Map<String, BigInteger> weights = (Map<String, BigInteger>) score.call("getAssetWeightByTimestamp", type,
+                BigInteger.ZERO);
+        assertEquals(ICX.divide(BigInteger.TEN), weights.get(addresses[0].toString()));
+        assertEquals(BigInteger.valueOf(5L).multiply(ICX).divide(BigInteger.valueOf(100)),
+                weights.get(addresses[1].toString()));
+        assertEquals(BigInteger.valueOf(30L).multiply(ICX).divide(BigInteger.valueOf(100)),
+                weights.get(addresses[2].toString()));
+    }
+
+    @DisplayName("migrate legacy asset weight checkpoints over several calls")
+    @Test
+    public void testMigrateLegacyAssetWeightCheckpoints() {
+        initTypeWeight(BigInteger.ZERO, 25L, 75L);
+        String type = TYPE_ID_PREFIX + 1;
+        for (int i = 0; i < 3; i++) {
+            addAsset(type, addresses[i]);
+        }
+        long from = getTimestamp().longValue();
+        sm.getBlock().increase(100);
+
+        // checkpoints stored per asset, as written before packed checkpoints
+        BranchDB<String, BranchDB<Integer, DictDB<Address, BigInteger>>> weightCheckpoint = getAssetWeightDB(
+                "weightCheckpoint");
+        BranchDB<String, DictDB<Integer, BigInteger>> totalCheckpoint = getAssetWeightDB("totalCheckpoint");
+        BranchDB<String, DictDB<Integer, Long>> timeCheckpoint = getAssetWeightDB("timeCheckpoint");
+        DictDB<String, Integer> checkpointCounter = getAssetWeightDB("checkpointCounter");
+        int count = 5;
+        for (int counter = 1; counter <= count; counter++) {
+            BigInteger total = BigInteger.ZERO;
+            for (int i = 0; i < 3; i++) {
+                BigInteger weight = BigInteger.valueOf((counter * 7L + i * 11L) % 30).multiply(ICX)
+                        .divide(BigInteger.valueOf(100));
+                weightCheckpoint.at(type).at(counter).set(addresses[i], weight);
+                total = total.add(weight);
+            }
+            totalCheckpoint.at(type).set(counter, total);
+            timeCheckpoint.at(type).set(counter, from + counter * 10L);
+        }
+        checkpointCounter.set(type, count);
+
+        BigInteger to = getTimestamp();
+        List<Map<String, ?>> history = (List<Map<String, ?>>) score.call("getAssetWeightHistory", type, 1, 10);
+        assertEquals(count, history.size());
+        List<Object> weights = new ArrayList<>();
+        for (int counter = 1; counter <= count; counter++) {
+            weights.add(score.call("getAssetWeightByTimestamp", type, BigInteger.valueOf(from + counter * 10L)));
+        }
+        BigInteger index = (BigInteger) score.call("calculateIntegrateIndex", addresses[0], ICX,
+                BigInteger.valueOf(from), to);
+        assertTrue(index.signum() > 0);
+
+        score.invoke(owner, "migrateAssetWeightCheckpoints", type, 2);
+        verify(scoreSpy).AssetWeightCheckpointsMigrated(type, BigInteger.TWO, BigInteger.valueOf(count));
+        assertEquals(history, score.call("getAssetWeightHistory", type, 1, 10));
+
+        Executable call = () -> setAssetWeight(BigInteger.ZERO, type, Map.of(addresses[0], 10L));
+        expectErrorMessage(call, "Asset Weight DB :: checkpoints migration in progress :: " + type);
+
+        score.invoke(owner, "migrateAssetWeightCheckpoints", type, 2);
+        verify(scoreSpy).AssetWeightCheckpointsMigrated(type, BigInteger.valueOf(4), BigInteger.valueOf(count));
+        score.invoke(owner, "migrateAssetWeightCheckpoints", type, 2);
+        verify(scoreSpy).AssetWeightCheckpointsMigrated(type, BigInteger.valueOf(count), BigInteger.valueOf(count));
+
+        call = () -> score.invoke(owner, "migrateAssetWeightCheckpoints", type, 2);
+        expectErrorMessage(call, "Asset Weight DB :: checkpoints already migrated :: " + type);
+
+        assertEquals(history, score.call("getAssetWeightHistory", type, 1, 10));
+        for (int counter = 1; counter <= count; counter++) {
+            assertEquals(weights.get(counter - 1),
+                    score.call("getAssetWeightByTimestamp", type, BigInteger.valueOf(from + counter * 10L)));
+        }
+        assertEquals(index, score.call("calculateIntegrateIndex", addresses[0], ICX, BigInteger.valueOf(from), to));
+
+        // clear legacy rows, reads should come from packed checkpoints only
+        for (int counter = 1; counter <= count; counter++) {
+            for (int i = 0; i < 3; i++) {
+                weightCheckpoint.at(type).at(counter).set(addresses[i], null);
+            }
+            totalCheckpoint.at(type).set(counter, null);
+        }
+        assertEquals(history, score.call("getAssetWeightHistory", type, 1, 10));
+
+        setAssetWeight(BigInteger.ZERO, type, Map.of(addresses[0], 10L));
+        assertEquals(BigInteger.valueOf(count + 1), score.call("getAssetCheckpointCount", type));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T getAssetWeightDB(String name) {
+        try {
+            Field field = AssetWeightDB.class.getDeclaredField(name);
+            field.setAccessible(true);
+            return (T) field.get(scoreSpy.assetWeightDB);
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
     @DisplayName("asset emission rate")
     @Test
     public void testAssetEmissionRate() {
@@ -494,6 +682,123 @@ public class RewardControllerUnitTest extends TestBase {
     }
 
 
+    @DisplayName("weight snapshot should not be used after scheduled checkpoint")
+    @Test
+    public void testWeightSnapshotWindow() {
+        initTypeWeight(BigInteger.ZERO, 25L, 75L);
+        String type = TYPE_ID_PREFIX + 1;
+        initAssetWeight(BigInteger.ZERO, 1, new HashMap<>() {{
+            put(addresses[0], 40L);
+            put(addresses[1], 60L);
+        }});
+
+        BigInteger future = getTimestamp().add(BigInteger.valueOf(100));
+        setAssetWeight(future, type, new HashMap<>() {{
+            put(addresses[0], 70L);
+            put(addresses[1], 30L);
+        }});
+
+        String name = addresses[0].toString();
+        BigInteger current = ICX.divide(BigInteger.TEN);
+        BigInteger scheduled = ICX.multiply(BigInteger.valueOf(175)).divide(BigInteger.valueOf(1000));
+
+        Map<String, Map<String, BigInteger>> result = (Map<String, Map<String, BigInteger>>) score.call(
+                "getAllAssetDistributionPercentage", BigInteger.ZERO);
+        assertEquals(current, result.get(type).get(name));
+
+        result = (Map<String, Map<String, BigInteger>>) score.call("getAllAssetDistributionPercentage", future);
+        assertEquals(current, result.get(type).get(name));
+
+        result = (Map<String, Map<String, BigInteger>>) score.call("getAllAssetDistributionPercentage",
+                future.add(BigInteger.ONE));
+        assertEquals(scheduled, result.get(type).get(name));
+        assertEquals(ICX.multiply(BigInteger.valueOf(25)).divide(BigInteger.valueOf(100)),
+                result.get(type).get("total"));
+
+        sm.getBlock().increase(60);
+        WeightSnapshot snapshot = getWeightSnapshot();
+        assertFalse(snapshot.isValid(getTimestamp().longValue() + 1));
+
+        score.invoke(sm.createAccount(), "refreshWeightSnapshot");
+        snapshot = getWeightSnapshot();
+        assertTrue(snapshot.isValid(getTimestamp().longValue() + 1));
+        assertEquals(future.longValue(), snapshot.validFrom);
+        result = (Map<String, Map<String, BigInteger>>) score.call("getAllAssetDistributionPercentage",
+                BigInteger.ZERO);
+        assertEquals(scheduled, result.get(type).get(name));
+    }
+
+    private WeightSnapshot getWeightSnapshot() {
+        try {
+            Field field = RewardWeightControllerImpl.class.getDeclaredField("weightSnapshot");
+            field.setAccessible(true);
+            return ((VarDB<WeightSnapshot>) field.get(scoreSpy)).get();
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    @DisplayName("weight history should match weight at checkpoint timestamp")
+    @Test
+    public void testWeightHistory() {
+        initTypeWeight(BigInteger.ZERO, 25L, 75L);
+        String type = TYPE_ID_PREFIX + 1;
+        initAssetWeight(BigInteger.ZERO, 1, new HashMap<>() {{
+            put(addresses[0], 40L);
+            put(addresses[1], 60L);
+        }});
+        for (long i = 1; i <= 10; i++) {
+            sm.getBlock().increase(10);
+            long weight = i * 5;
+            setTypeWeight(BigInteger.ZERO, Map.of(1, weight, 2, 100 - weight));
+            setAssetWeight(BigInteger.ZERO, type, Map.of(addresses[0], weight, addresses[1], 100 - weight));
+        }
+
+        int typeCount = ((BigInteger) score.call("getTypeCheckpointCount")).intValue();
+        List<Map<String, ?>> typeHistory = (List<Map<String, ?>>) score.call("getTypeWeightHistory", typeCount - 4,
+                10);
+        assertEquals(5, typeHistory.size());
+        for (int i = 0; i < typeHistory.size(); i++) {
+            Map<String, ?> checkpoint = typeHistory.get(i);
+            assertEquals(BigInteger.valueOf(typeCount - 4 + i), checkpoint.get("checkpoint"));
+            BigInteger timestamp = (BigInteger) checkpoint.get("timestamp");
+            assertEquals(score.call("getTypeTimestampAtCheckpoint", typeCount - 4 + i), timestamp);
+            assertEquals(score.call("getTypeWeightByTimestamp", timestamp.add(BigInteger.ONE)),
+                    checkpoint.get("weights"));
+            assertEquals(ICX, checkpoint.get("total"));
+        }
+
+        int assetCount = ((BigInteger) score.call("getAssetCheckpointCount", type)).intValue();
+        List<Map<String, ?>> assetHistory = (List<Map<String, ?>>) score.call("getAssetWeightHistory", type,
+                assetCount - 4, 100);
+        assertEquals(5, assetHistory.size());
+        for (Map<String, ?> checkpoint : assetHistory) {
+            BigInteger timestamp = (BigInteger) checkpoint.get("timestamp");
+            Map<String, BigInteger> expected = new HashMap<>(
+                    (Map<String, BigInteger>) score.call("getAssetWeightByTimestamp", type,
+                            timestamp.add(BigInteger.ONE)));
+            assertEquals(expected, checkpoint.get("weights"));
+            assertEquals(ICX, checkpoint.get("total"));
+        }
+
+        Executable call = () -> score.call("getAssetWeightHistory", type, 1, 101);
+        expectErrorMessage(call, "limit should be between 1 and 100");
+
+        call = () -> score.call("getTypeWeightHistory", 0, 10);
+        expectErrorMessage(call, "invalid checkpoint :: 0");
+        call = () -> score.call("getAssetWeightHistory", type, 0, 10);
+        expectErrorMessage(call, "invalid checkpoint :: 0");
+
+        typeHistory = (List<Map<String, ?>>) score.call("getTypeWeightHistory", 1, 1);
+        assertEquals(1, typeHistory.size());
+        assertEquals(BigInteger.ONE, typeHistory.get(0).get("checkpoint"));
+        assertEquals(ICX, typeHistory.get(0).get("total"));
+        assetHistory = (List<Map<String, ?>>) score.call("getAssetWeightHistory", type, 1, 1);
+        assertEquals(1, assetHistory.size());
+        assertEquals(BigInteger.ONE, assetHistory.get(0).get("checkpoint"));
+        assertEquals(ICX, assetHistory.get(0).get("total"));
+    }
+
     @DisplayName("Integrate index test")
     @Test
     public void testIntegrateIndex() {
@@ -636,6 +941,185 @@ public class RewardControllerUnitTest extends TestBase {
         assertEquals(expectedIndex, index.floatValue() / ICX.floatValue(), 0.03);
     }
 
+    @DisplayName("batch integrate index should match single asset integrate index")
+    @Test
+    public void testIntegrateIndexes() {
+        initTypeWeight(BigInteger.ZERO, 25L, 75L);
+
+        String type = TYPE_ID_PREFIX + 1;
+        Map<Address, Long> values = new HashMap<>() {{
+            put(addresses[0], 10L);
+            put(addresses[1], 20L);
+            put(addresses[2], 30L);
+            put(addresses[3], 40L);
+        }};
+        initAssetWeight(BigInteger.ZERO, 1, values);
+        BigInteger fromTimestampInSeconds = getTimestamp();
+
+        sm.getBlock().increase(599);
+        setTypeWeight(BigInteger.ZERO, new HashMap<>() {{
+            put(1, 40L);
+            put(2, 60L);
+        }});
+        sm.getBlock().increase(599);
+        setAssetWeight(BigInteger.ZERO, type, new HashMap<>() {{
+            put(addresses[0], 50L);
+            put(addresses[2], 10L);
+            put(addresses[3], 20L);
+        }});
+        sm.getBlock().increase(1000);
+        BigInteger toTimestampInSeconds = getTimestamp();
+
+        Address[] assets = new Address[]{addresses[0], addresses[1], addresses[2], addresses[3]};
+        BigInteger[] totalSupplies = new BigInteger[]{
+                BigInteger.valueOf(100).multiply(ICX),
+                BigInteger.valueOf(200).multiply(ICX),
+                BigInteger.ZERO,
+                BigInteger.valueOf(400).multiply(ICX)
+        };
+        BigInteger[] from = new BigInteger[]{
+                fromTimestampInSeconds,
+                fromTimestampInSeconds.add(BigInteger.TEN),
+                fromTimestampInSeconds,
+                toTimestampInSeconds
+        };
+
+        Map<String, BigInteger> indexes = (Map<String, BigInteger>) score.call("calculateIntegrateIndexes", assets,
+                totalSupplies, from, toTimestampInSeconds);
+
+        for (int i = 0; i < assets.length; i++) {
+            BigInteger expected = (BigInteger) score.call("calculateIntegrateIndex", assets[i], totalSupplies[i],
+                    from[i], toTimestampInSeconds);
+            assertEquals(expected, indexes.get(assets[i].toString()), "index not match at " + i);
+        }
+
+        Executable call = () -> score.call("calculateIntegrateIndexes", assets, totalSupplies,
+                new BigInteger[]{fromTimestampInSeconds}, toTimestampInSeconds);
+        expectErrorMessage(call, "invalid length of parameters :: assets=4, totalSupplies=4, from=1");
+    }
+
+    @DisplayName("segment walk should match re-search per segment")
+    @Test
+    public void testIntegrateIndexSegmentWalk() {
+        initTypeWeight(BigInteger.ZERO, 25L, 75L);
+
+        String type = TYPE_ID_PREFIX + 1;
+        Map<Address, Long> values = new HashMap<>() {{
+            put(addresses[0], 10L);
+            put(addresses[1], 20L);
+            put(addresses[2], 30L);
+            put(addresses[3], 40L);
+        }};
+        initAssetWeight(BigInteger.ZERO, 1, values);
+        BigInteger fromTimestampInSeconds = getTimestamp();
+
+        sm.getBlock().increase(299);
+        setTypeWeight(BigInteger.ZERO, new HashMap<>() {{
+            put(1, 40L);
+            put(2, 60L);
+        }});
+        sm.getBlock().increase(199);
+        setAssetWeight(BigInteger.ZERO, type, new HashMap<>() {{
+            put(addresses[0], 50L);
+            put(addresses[2], 10L);
+            put(addresses[3], 20L);
+        }});
+        sm.getBlock().increase(399);
+        setAssetWeight(BigInteger.ZERO, type, new HashMap<>() {{
+            put(addresses[0], 20L);
+            put(addresses[2], 40L);
+        }});
+        BigInteger midTimestampInSeconds = getTimestamp();
+        sm.getBlock().increase(99);
+        setTypeWeight(BigInteger.ZERO, new HashMap<>() {{
+            put(1, 70L);
+            put(2, 30L);
+        }});
+        sm.getBlock().increase(500);
+        BigInteger toTimestampInSeconds = getTimestamp();
+
+        BigInteger ratePerSecond = BigInteger.valueOf(1_000_000).multiply(ICX).divide(TimeConstants.DAY_IN_SECONDS);
+        BigInteger rateChangedOn = startTimestamp.divide(SECOND);
+        doReturn(Map.of(
+                "rateChangedOn", rateChangedOn,
+                "ratePerSecond", ratePerSecond
+        )).when(scoreSpy).getInflationRateByTimestamp(any());
+
+        BigInteger totalSupply = BigInteger.valueOf(100).multiply(ICX);
+        BigInteger[] from = new BigInteger[]{
+                fromTimestampInSeconds,
+                fromTimestampInSeconds.subtract(BigInteger.valueOf(100)),
+                midTimestampInSeconds,
+                midTimestampInSeconds.add(BigInteger.ONE)
+        };
+
+        for (Address asset : new Address[]{addresses[0], addresses[1], addresses[2]}) {
+            for (BigInteger fromInSeconds : from) {
+                Map<String, BigInteger> expected = legacyIntegrateIndex(asset, type, totalSupply, fromInSeconds,
+                        toTimestampInSeconds, ratePerSecond, rateChangedOn);
+
+                clearInvocations(scoreSpy);
+                BigInteger index = (BigInteger) score.call("calculateIntegrateIndex", asset, totalSupply,
+                        fromInSeconds, toTimestampInSeconds);
+
+                assertEquals(expected.get("index"), index);
+                verify(scoreSpy, times(expected.get("steps").intValue())).getInflationRateByTimestamp(any());
+            }
+        }
+    }
+
+    /**
+     * re-search asset weight, type weight and inflation rate for each segment, walking backward from
+     * {@code toInSeconds}
+     */
+    private Map<String, BigInteger> legacyIntegrateIndex(Address asset, String type, BigInteger totalSupply,
+            BigInteger fromInSeconds, BigInteger toInSeconds, BigInteger ratePerSecond, BigInteger rateChangedOn) {
+        List<BigInteger> typeTimestamps = new ArrayList<>();
+        int typeCheckpoints = ((BigInteger) score.call("getTypeCheckpointCount")).intValue();
+        for (int i = 1; i <= typeCheckpoints; i++) {
+            typeTimestamps.add((BigInteger) score.call("getTypeTimestampAtCheckpoint", i));
+        }
+        List<BigInteger> assetTimestamps = new ArrayList<>();
+        int assetCheckpoints = ((BigInteger) score.call("getAssetCheckpointCount", type)).intValue();
+        for (int i = 1; i <= assetCheckpoints; i++) {
+            assetTimestamps.add((BigInteger) score.call("getAssetTimestampAtCheckpoint", type, i));
+        }
+
+        BigInteger initialTimestamp = startTimestamp.divide(SECOND);
+        BigInteger integrateIndex = BigInteger.ZERO;
+        BigInteger prevTimestamp = BigInteger.ZERO;
+        long steps = 0;
+        toInSeconds = toInSeconds.subtract(BigInteger.ONE);
+        while (toInSeconds.compareTo(initialTimestamp) >= 0 && toInSeconds.compareTo(fromInSeconds) > 0
+                && !toInSeconds.equals(prevTimestamp)) {
+            prevTimestamp = toInSeconds;
+            steps++;
+            BigInteger tWeight = (BigInteger) score.call("getTypeWeight", type, toInSeconds);
+            BigInteger aWeight = ((Map<String, BigInteger>) score.call("getAssetWeightByTimestamp", type,
+                    toInSeconds)).get(asset.toString());
+
+            BigInteger maximum = previousCheckpoint(assetTimestamps, toInSeconds)
+                    .max(previousCheckpoint(typeTimestamps, toInSeconds))
+                    .max(rateChangedOn)
+                    .max(fromInSeconds);
+            BigInteger rate = exaMultiply(exaMultiply(ratePerSecond, tWeight), aWeight);
+            BigInteger totalRewards = rate.multiply(toInSeconds.add(BigInteger.ONE).subtract(maximum));
+            integrateIndex = integrateIndex.add(exaDivide(totalRewards, totalSupply));
+            toInSeconds = maximum.subtract(BigInteger.ONE);
+        }
+        return Map.of("index", integrateIndex, "steps", BigInteger.valueOf(steps));
+    }
+
+    private BigInteger previousCheckpoint(List<BigInteger> timestamps, BigInteger timestamp) {
+        BigInteger result = BigInteger.ZERO;
+        for (BigInteger value : timestamps) {
+            if (value.compareTo(timestamp) < 0) {
+                result = value;
+            }
+        }
+        return result;
+    }
+
     @DisplayName("test distribution info")
     @Test
     public void testDistributionInfo() {
@@ -680,6 +1164,56 @@ public class RewardControllerUnitTest extends TestBase {
 
     }
 
+    @DisplayName("precompute catch up should match sum of daily distribution")
+    @Test
+    public void testPrecomputeCatchUp() {
+        sm.getBlock().increase(86400L * (6 * 365 + 100) / 2);
+
+        BigInteger today = (BigInteger) score.call("getDay");
+        // single day, inside one year, across one boundary and across every schedule boundary from start
+        long[] fromDays = new long[]{
+                today.longValue() - 1, today.longValue() - 50, today.longValue() - 400, 1100, 1000, 20, 0
+        };
+        for (long fromDay : fromDays) {
+            BigInteger day = BigInteger.valueOf(fromDay);
+            BigInteger expected = BigInteger.ZERO;
+            for (BigInteger i = day.add(BigInteger.ONE); i.compareTo(today) <= 0; i = i.add(BigInteger.ONE)) {
+                expected = expected.add((BigInteger) score.call("tokenDistributionPerDay", i));
+            }
+
+            Map<String, ?> result = (Map<String, ?>) score.call("precompute", day);
+
+            assertTrue((boolean) result.get("isValid"));
+            assertEquals(today, result.get("day"));
+            assertEquals(expected, result.get("amountToMint"), "catch up from day " + fromDay);
+        }
+    }
+
+    @DisplayName("galloping checkpoint search should match binary search")
+    @Test
+    public void testGallopingCheckpointSearch() {
+        int checkpointCount = 100;
+        Map<Integer, Long> timestamps = new HashMap<>();
+        for (int i = 1; i <= checkpointCount; i++) {
+            timestamps.put(i, i * 10L);
+        }
+        DictDB<Integer, Long> timeCheckpoints = mock(DictDB.class);
+        doAnswer(invocation -> timestamps.getOrDefault(invocation.<Integer>getArgument(0),
+                invocation.getArgument(1))).when(timeCheckpoints).getOrDefault(any(), any());
+
+        Searchable searchable = new Searchable() {
+        };
+        for (long time = 0; time <= checkpointCount * 10L + 10; time++) {
+            int expected = searchable.searchCheckpoint(time, 0, checkpointCount, timeCheckpoints);
+            assertEquals(expected, searchable.searchCheckpoint(time, checkpointCount, timeCheckpoints));
+        }
+
+        clearInvocations(timeCheckpoints);
+        assertEquals(checkpointCount - 1,
+                searchable.searchCheckpoint(checkpointCount * 10L - 5, checkpointCount, timeCheckpoints));
+        verify(timeCheckpoints, times(2)).getOrDefault(any(), any());
+    }
+
     private void addAsset(String type, Address address) {
         Object[] params = new Object[]{
                 type, address, address.toString()
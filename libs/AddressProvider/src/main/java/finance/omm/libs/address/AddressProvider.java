@@ -67,6 +67,17 @@ public class AddressProvider {
         return _addresses.get(name);
     }
 
+    /**
+     * address of given contract, each call reads addresses DictDB. a method that calls the same contract more than
+     * once should resolve it once into a local and use {@link #call(Class, Address, String, Object...)}
+     *
+     * @param contract - contract
+     * @return contract address
+     */
+    public Address getContractAddress(Contracts contract) {
+        return getAddress(contract.getKey());
+    }
+
     @External(readonly = true)
     public Address getAddressProvider() {
         return this._addressProvider.get();
@@ -77,11 +88,15 @@ public class AddressProvider {
     }
 
     public void call(Contracts contract, String method, Object... params) {
-        call(getAddress(contract.getKey()), method, params);
+        call(getContractAddress(contract), method, params);
     }
 
     public  <K> K call(Class<K> kClass, Contracts contract, String method, Object... params) {
-        return Context.call(kClass, getAddress(contract.getKey()), method, params);
+        return Context.call(kClass, getContractAddress(contract), method, params);
+    }
+
+    public <K> K call(Class<K> kClass, Address address, String method, Object... params) {
+        return Context.call(kClass, address, method, params);
     }
 
     protected void checkAddressProvider() {
@@ -92,7 +107,7 @@ public class AddressProvider {
 
     public void onlyOrElseThrow(Contracts contract, OMMException ommException) {
         if (!Context.getCaller()
-                .equals(this.getAddress(contract.getKey()))) {
+                .equals(this.getContractAddress(contract))) {
             throw ommException;
         }
     }
@@ -5,6 +5,7 @@ import score.Address;
 import java.math.BigInteger;
 
 public class UserAssetInput {
+    public Address user;
     public Address asset;
     public BigInteger userBalance;
     public BigInteger totalBalance;
@@ -3,12 +3,14 @@ package finance.omm.core.score.interfaces;
 import java.math.BigInteger;
 import score.Address;
 import score.annotation.EventLog;
+import score.annotation.Optional;
 
 public interface BoostedOMMCallback {
 
-    void onKick(Address user, BigInteger bOMMUserBalance, byte[] data);
+    void onKick(Address user, BigInteger bOMMUserBalance, @Optional byte[] data,
+            @Optional BigInteger bOMMTotalSupply);
 
-    void onBalanceUpdate(Address user);
+    void onBalanceUpdate(Address user, @Optional BigInteger bOMMUserBalance, @Optional BigInteger bOMMTotalSupply);
 
     @EventLog
     void UserKicked(Address user, byte[] data);
@@ -36,6 +36,12 @@ public interface BoostedToken {
     void checkpoint();
 
 
+    void checkpointGlobal(int maxWeeks);
+
+
+    BigInteger pendingCheckpointWeeks();
+
+
     void tokenFallback(Address _from, BigInteger _value, byte[] _data);
 
 
@@ -51,14 +57,29 @@ public interface BoostedToken {
     BigInteger balanceOfAt(Address _owner, BigInteger block);
 
 
+    Map<String, BigInteger> balancesOf(Address[] users, @Optional BigInteger timestamp);
+
+
+    Map<String, BigInteger> balancesOfAt(Address[] users, BigInteger block);
+
+
     BigInteger totalSupply(@Optional BigInteger time);
 
 
     BigInteger totalSupplyAt(BigInteger block);
 
 
+    Map<String, BigInteger> getBalanceAndSupply(Address user);
+
+
     void kick(Address _user);
 
+    void kickExpired(BigInteger week, int maxCount);
+
+    List<Address> getExpiringUsers(BigInteger week, int start, int end);
+
+    void indexLockExpiries(int start, int end);
+
     String name();
 
 
@@ -34,6 +34,8 @@ public interface Delegation extends BoostedOMMCallback {
 
     void updateDelegations(@Optional PrepDelegations[] _delegations, @Optional Address _user);
 
+    void onKickBatch(Address[] users, @Optional byte[] data);
+
     BigInteger prepVotes(Address _prep);
 
     BigInteger getWorkingBalance(Address _user);
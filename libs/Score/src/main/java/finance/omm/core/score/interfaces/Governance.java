@@ -41,6 +41,8 @@ public interface Governance extends AddressProvider {
 
     void disableRewardClaim();
 
+    void enableWorkerRewardPull();
+
     void addPools(AssetConfig[] _assetConfigs);
 
     void addPool(AssetConfig _assetConfig);
@@ -2,6 +2,7 @@ package finance.omm.core.score.interfaces;
 
 import finance.omm.libs.structs.AssetConfig;
 import finance.omm.libs.structs.DistPercentage;
+import finance.omm.libs.structs.UserAssetInput;
 import finance.omm.libs.structs.UserDetails;
 import foundation.icon.score.client.ScoreInterface;
 import java.math.BigInteger;
@@ -134,6 +135,12 @@ public interface RewardDistribution extends AddressProvider, BoostedOMMCallback
     @External
     void handleLPAction(Address _asset, UserDetails _userDetails);
 
+    @External
+    void handleActions(UserAssetInput[] _actions);
+
+    @External
+    void onKickBatch(Address[] users, @Optional byte[] data, @Optional BigInteger bOMMTotalSupply);
+
     @External
     void addType(String key, boolean isPlatformRecipient);
 
@@ -147,6 +154,9 @@ public interface RewardDistribution extends AddressProvider, BoostedOMMCallback
     @External
     void claimRewards(Address user);
 
+    @External
+    void claimAssetRewards(Address user, Address[] assets);
+
     @External(readonly = true)
     BigInteger getClaimedReward(Address user);
 
@@ -169,8 +179,33 @@ public interface RewardDistribution extends AddressProvider, BoostedOMMCallback
 
     void updateAssetIndexes();
 
+    @External
+    void updateAllAssetIndexes();
+
+    @External
+    void updateAssetIndexesOf(Address[] _assets);
+
     void migrateUserRewards(Address[] userAddresses);
 
+    void continueMigration(int maxItems);
+
+    @External
+    void onWorkerTokenTransfer(Address _from, BigInteger _fromBalance, Address _to, BigInteger _toBalance);
+
+    @External
+    void enableWorkerRewardPull();
+
+    @External(readonly = true)
+    boolean isWorkerRewardPullEnabled();
+
+    @External
+    void claimWorkerRewards();
+
+    @External(readonly = true)
+    BigInteger getWorkerRewards(Address user);
+
+    Map<String, BigInteger> getMigrationProgress();
+
     Map<String, BigInteger> getUserDailyReward(Address user);
 
     void setRewardCalculatedFlag(boolean value);
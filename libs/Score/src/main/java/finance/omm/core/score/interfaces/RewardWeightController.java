@@ -27,12 +27,19 @@ public interface RewardWeightController {
 
     void setAssetWeight(String type, WeightStruct[] weights, @Optional BigInteger timestamp);
 
+    void migrateAssetWeightCheckpoints(String type, int limit);
+
+    void refreshWeightSnapshot();
+
     BigInteger tokenDistributionPerDay(BigInteger _day);
 
     BigInteger getDay();
 
     BigInteger calculateIntegrateIndex(Address assetAddr, BigInteger totalSupply, BigInteger from, BigInteger to);
 
+    Map<String, BigInteger> calculateIntegrateIndexes(Address[] assets, BigInteger[] totalSupplies, BigInteger[] from,
+            BigInteger to);
+
     BigInteger getTypeCheckpointCount();
 
     BigInteger getAssetCheckpointCount(String type);
@@ -41,6 +48,10 @@ public interface RewardWeightController {
 
     BigInteger getTypeTimestampAtCheckpoint(int checkpointId);
 
+    List<Map<String, ?>> getTypeWeightHistory(int fromCheckpoint, int limit);
+
+    List<Map<String, ?>> getAssetWeightHistory(String type, int fromCheckpoint, int limit);
+
     Map<String, BigInteger> getTypeWeightByTimestamp(@Optional BigInteger timestamp);
 
     Map<String, BigInteger> getAssetWeightByTimestamp(String type, @Optional BigInteger timestamp);
@@ -27,6 +27,8 @@ public class TimeConstants {
 
     public static final UnsignedBigInteger U_WEEK_IN_MICRO_SECONDS = new UnsignedBigInteger(WEEK_IN_MICRO_SECONDS);
 
+    public static final long MICRO_SECONDS_PER_SECOND = 1000000L;
+
     /**
      * get current block timestamp in microseconds
      *
@@ -43,7 +45,25 @@ public class TimeConstants {
      * @return - BigInteger
      */
     public static BigInteger getBlockTimestampInSecond() {
-        return BigInteger.valueOf(Context.getBlockTimestamp()).divide(SECOND);
+        return BigInteger.valueOf(currentTimestampInSecond());
+    }
+
+    /**
+     * get current block timestamp in microseconds
+     *
+     * @return - long
+     */
+    public static long currentTimestamp() {
+        return Context.getBlockTimestamp();
+    }
+
+    /**
+     * get current block timestamp in seconds
+     *
+     * @return - long
+     */
+    public static long currentTimestampInSecond() {
+        return Context.getBlockTimestamp() / MICRO_SECONDS_PER_SECOND;
     }
 
     /**
@@ -63,20 +83,28 @@ public class TimeConstants {
     }
 
     public static void checkIsValidTimestamp(BigInteger value, Timestamp format, OMMException exception) {
-        boolean isValid = false;
+        if (value.bitLength() >= Long.SIZE || !isValidTimestamp(value.longValue(), format)) {
+            throw exception;
+        }
+    }
+
+    /**
+     * check number of digits of value for timestamp validity, same as {@link #checkIsValidTimestamp(BigInteger,
+     * Timestamp)} without string conversion
+     *
+     * @param value  - long timestamp value
+     * @param format - SECONDS, MILLI_SECONDS, MICRO_SECONDS
+     * @return true if value has 10, 13 or 16 digits respectively
+     */
+    public static boolean isValidTimestamp(long value, Timestamp format) {
         switch (format) {
             case SECONDS:
-                isValid = value.toString().length() == 10;
-                break;
+                return value >= 1_000_000_000L && value < 10_000_000_000L;
             case MILLI_SECONDS:
-                isValid = value.toString().length() == 13;
-                break;
+                return value >= 1_000_000_000_000L && value < 10_000_000_000_000L;
             case MICRO_SECONDS:
-                isValid = value.toString().length() == 16;
-                break;
-        }
-        if (!isValid) {
-            throw exception;
+                return value >= 1_000_000_000_000_000L && value < 10_000_000_000_000_000L;
         }
+        return false;
     }
 }
@@ -84,6 +84,10 @@ public class EnumerableDictDB<K, V> {
         return old;
     }
 
+    public Integer indexOf(K key) {
+        return getIndex(key);
+    }
+
     public boolean containsKey(K key) {
         return getIndex(key) != null;
     }
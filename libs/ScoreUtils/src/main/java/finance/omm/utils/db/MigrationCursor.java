@@ -0,0 +1,65 @@
+package finance.omm.utils.db;
+
+import java.math.BigInteger;
+import score.ArrayDB;
+import score.Context;
+import score.VarDB;
+
+/**
+ * persistent cursor over (key, item) pairs of queued keys and a fixed list of items, for migrations which don't fit in
+ * a single transaction. position p refers to key p / itemCount and item p % itemCount, callers process pairs from
+ * {@link #getPosition()} up to their budget and store the next position with {@link #setPosition(long)}
+ */
+public class MigrationCursor<K> {
+
+    private final ArrayDB<K> keys;
+    private final VarDB<BigInteger> position;
+
+    public MigrationCursor(String id, Class<K> keyClass) {
+        this.keys = Context.newArrayDB(id + "_keys", keyClass);
+        this.position = Context.newVarDB(id + "_position", BigInteger.class);
+    }
+
+    public void enqueue(K key) {
+        keys.add(key);
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public K keyAt(long position, int itemCount) {
+        return keys.get((int) (position / itemCount));
+    }
+
+    public static int itemAt(long position, int itemCount) {
+        return (int) (position % itemCount);
+    }
+
+    public long total(int itemCount) {
+        return (long) keys.size() * itemCount;
+    }
+
+    public long getPosition() {
+        return position.getOrDefault(BigInteger.ZERO).longValue();
+    }
+
+    public void setPosition(long value) {
+        position.set(BigInteger.valueOf(value));
+    }
+
+    public boolean isDone(int itemCount) {
+        return getPosition() >= total(itemCount);
+    }
+
+    /**
+     * last position of a call which may process at most maxItems pairs
+     *
+     * @param itemCount - number of items per key
+     * @param maxItems  - work budget of the call
+     * @return exclusive end position
+     */
+    public long end(int itemCount, int maxItems) {
+        return Math.min(total(itemCount), getPosition() + maxItems);
+    }
+}
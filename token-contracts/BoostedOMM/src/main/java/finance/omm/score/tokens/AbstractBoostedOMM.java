@@ -26,6 +26,12 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
     public static final BigInteger MAX_TIME = BigInteger.valueOf(4L).multiply(TimeConstants.YEAR_IN_MICRO_SECONDS);
     protected static final UnsignedBigInteger MULTIPLIER = UnsignedBigInteger.pow10(18);
 
+    // week points a lock operation or checkpoint() may write before the global history has to be advanced by
+    // checkpointGlobal, withdraw is not bounded
+    protected static final int MAX_USER_CATCH_UP_WEEKS = 8;
+    // week points a single checkpoint writes at most
+    protected static final int MAX_CHECKPOINT_WEEKS = 255;
+
     protected static final int DEPOSIT_FOR_TYPE = 0;
     protected static final int CREATE_LOCK_TYPE = 1;
     protected static final int INCREASE_LOCK_AMOUNT = 2;
@@ -45,11 +51,17 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
     protected final DictDB<Address, LockedBalance> locked = Context.newDictDB("Boosted_Omm_locked",
             LockedBalance.class);
 
+    protected static final String EXPIRING_LOCKS = "Boosted_Omm_expiring_locks_";
+
     protected final VarDB<BigInteger> epoch = Context.newVarDB("Boosted_Omm_epoch", BigInteger.class);
     protected final DictDB<BigInteger, Point> pointHistory = Context.newDictDB("Boosted_Omm_point_history",
             Point.class);
     protected final BranchDB<Address, DictDB<BigInteger, Point>> userPointHistory = Context.newBranchDB(
             "Boosted_Omm_user_point_history", Point.class);
+    // block of each history point, bisection probes read these instead of whole points
+    protected final DictDB<Long, Long> pointBlock = Context.newDictDB("Boosted_Omm_point_block", Long.class);
+    protected final BranchDB<Address, DictDB<Long, Long>> userPointBlock = Context.newBranchDB(
+            "Boosted_Omm_user_point_block", Long.class);
     protected final DictDB<Address, BigInteger> userPointEpoch = Context.newDictDB("Boosted_Omm_user_point_epoch",
             BigInteger.class);
     protected final DictDB<BigInteger, BigInteger> slopeChanges = Context.newDictDB("Boosted_Omm_slope_changes",
@@ -87,7 +99,7 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
         Point point = new Point();
         point.block = UnsignedBigInteger.valueOf(Context.getBlockHeight());
         point.timestamp = UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
-        this.pointHistory.set(BigInteger.ZERO, point);
+        setPointHistory(BigInteger.ZERO, point);
 
         this.ommTokenBalance.set(BigInteger.ZERO);
         this.supply.set(BigInteger.ZERO);
@@ -107,6 +119,14 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
     public void Supply(BigInteger prevSupply, BigInteger supply) {
     }
 
+    /**
+     * emitted only when a checkpoint writes week points that were pending, each week point is written once so a week
+     * is reported at most once across all keepers
+     */
+    @EventLog(indexed = 1)
+    public void KeeperCheckpoint(Address keeper, BigInteger weeks) {
+    }
+
 
     @External(readonly = true)
     public int decimals() {
@@ -124,35 +144,68 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
     }
 
     protected BigInteger findBlockEpoch(BigInteger block, BigInteger maxEpoch) {
-        BigInteger min = BigInteger.ZERO;
-        BigInteger max = maxEpoch;
+        long target = block.longValue();
+        long min = 0;
+        long max = maxEpoch.longValue();
 
-        for (int index = 0; index < 256 && min.compareTo(max) < 0; ++index) {
-            BigInteger mid = min.add(max).add(BigInteger.ONE).divide(BigInteger.TWO);
-            Point point = this.pointHistory.getOrDefault(mid, new Point());
-            if (point.block.compareTo(block) <= 0) {
+        while (min < max) {
+            long mid = (min + max + 1) >>> 1;
+            if (getPointBlock(mid) <= target) {
                 min = mid;
             } else {
-                max = mid.subtract(BigInteger.ONE);
+                max = mid - 1;
             }
         }
 
-        return min;
+        return BigInteger.valueOf(min);
     }
 
     protected BigInteger findUserPointHistory(Address address, BigInteger block) {
-        BigInteger min = BigInteger.ZERO;
-        BigInteger max = this.userPointEpoch.getOrDefault(address, BigInteger.ZERO);
-
-        for (int index = 0; index < 256 && min.compareTo(max) < 0; ++index) {
-            BigInteger mid = min.add(max).add(BigInteger.ONE).divide(BigInteger.TWO);
-            if (getUserPointHistory(address, mid).block.compareTo(block) <= 0) {
+        long target = block.longValue();
+        long min = 0;
+        long max = this.userPointEpoch.getOrDefault(address, BigInteger.ZERO).longValue();
+        DictDB<Long, Long> blocks = this.userPointBlock.at(address);
+
+        while (min < max) {
+            long mid = (min + max + 1) >>> 1;
+            if (getUserPointBlock(address, blocks, mid) <= target) {
                 min = mid;
             } else {
-                max = mid.subtract(BigInteger.ONE);
+                max = mid - 1;
             }
         }
-        return min;
+        return BigInteger.valueOf(min);
+    }
+
+    /**
+     * block of a history point, points written before the block index existed are read in full
+     */
+    private long getPointBlock(long epoch) {
+        Long block = this.pointBlock.get(epoch);
+        if (block != null) {
+            return block;
+        }
+        Point point = this.pointHistory.get(BigInteger.valueOf(epoch));
+        return point == null ? 0L : point.block.longValue();
+    }
+
+    private long getUserPointBlock(Address user, DictDB<Long, Long> blocks, long epoch) {
+        Long block = blocks.get(epoch);
+        if (block != null) {
+            return block;
+        }
+        Point point = this.userPointHistory.at(user).get(BigInteger.valueOf(epoch));
+        return point == null ? 0L : point.block.longValue();
+    }
+
+    protected void setPointHistory(BigInteger epoch, Point point) {
+        this.pointHistory.set(epoch, point);
+        this.pointBlock.set(epoch.longValue(), point.block.longValue());
+    }
+
+    protected void setUserPointHistory(Address user, BigInteger epoch, Point point) {
+        this.userPointHistory.at(user).set(epoch, point);
+        this.userPointBlock.at(user).set(epoch.longValue(), point.block.longValue());
     }
 
 
@@ -194,6 +247,14 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
     }
 
     protected void checkpoint(Address address, LockedBalance oldLocked, LockedBalance newLocked) {
+        checkpoint(address, oldLocked, newLocked, MAX_USER_CATCH_UP_WEEKS);
+    }
+
+    /**
+     * @param maxCatchUpWeeks - week points a user checkpoint may write, more pending weeks revert the checkpoint
+     */
+    protected void checkpoint(Address address, LockedBalance oldLocked, LockedBalance newLocked,
+            int maxCatchUpWeeks) {
         Point uOld = new Point();
         Point uNew = new Point();
         BigInteger oldDSlope = BigInteger.ZERO;
@@ -236,6 +297,63 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
         if (epoch.compareTo(BigInteger.ZERO) > 0) {
             lastPoint = this.pointHistory.getOrDefault(epoch, new Point());
         }
+        if (!address.equals(ZERO_ADDRESS)) {
+            long pendingWeeks = pendingWeeks(lastPoint, blockTimestamp);
+            Context.require(pendingWeeks <= maxCatchUpWeeks,
+                    "Checkpoint: " + pendingWeeks + " weeks of history pending, call checkpointGlobal first");
+        }
+
+        epoch = fillPointHistory(lastPoint, epoch, blockTimestamp);
+
+        this.epoch.set(epoch);
+        if (!address.equals(ZERO_ADDRESS)) {
+            lastPoint.slope = lastPoint.slope.add(uNew.slope.subtract(uOld.slope));
+            lastPoint.bias = lastPoint.bias.add(uNew.bias.subtract(uOld.bias));
+
+            if (lastPoint.slope.compareTo(BigInteger.ZERO) < 0) {
+                lastPoint.slope = BigInteger.ZERO;
+            }
+            if (lastPoint.bias.compareTo(BigInteger.ZERO) < 0) {
+                lastPoint.bias = BigInteger.ZERO;
+            }
+        }
+
+        setPointHistory(epoch, lastPoint);
+
+        if (!address.equals(ZERO_ADDRESS)) {
+            if (oldLocked.end.compareTo(blockTimestamp) > 0) {
+                oldDSlope = oldDSlope.add(uOld.slope);
+                if (newLocked.end.equals(oldLocked.end)) {
+                    oldDSlope = oldDSlope.subtract(uNew.slope);
+                }
+                this.slopeChanges.set(oldLocked.getEnd(), oldDSlope);
+            }
+
+            if (newLocked.end.compareTo(blockTimestamp) > 0 && newLocked.end.compareTo(oldLocked.end) > 0) {
+                newDSlope = newDSlope.subtract(uNew.slope);
+                this.slopeChanges.set(newLocked.getEnd(), newDSlope);
+            }
+
+            BigInteger userEpoch = this.userPointEpoch.getOrDefault(address, BigInteger.ZERO).add(BigInteger.ONE);
+            this.userPointEpoch.set(address, userEpoch);
+            uNew.timestamp = blockTimestamp;
+            uNew.block = blockHeight;
+            setUserPointHistory(address, userEpoch, uNew);
+        }
+    }
+
+    /**
+     * write a global point for each week boundary after the last point, up to the given timestamp. the point at until is
+     * left in lastPoint for the caller to store
+     *
+     * @param lastPoint - last stored point, advanced in place
+     * @param epoch     - epoch of last point
+     * @param until     - current block timestamp or a week boundary before it
+     * @return epoch of the point at until
+     */
+    protected BigInteger fillPointHistory(Point lastPoint, BigInteger epoch, UnsignedBigInteger until) {
+        UnsignedBigInteger blockTimestamp = UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
+        UnsignedBigInteger blockHeight = UnsignedBigInteger.valueOf(Context.getBlockHeight());
         UnsignedBigInteger lastCheckPoint = lastPoint.timestamp;
 
         //      initialLastPoint is used for extrapolation to calculate block number
@@ -254,11 +372,11 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
         UnsignedBigInteger timeIterator = lastCheckPoint.divide(TimeConstants.U_WEEK_IN_MICRO_SECONDS)
                 .multiply(TimeConstants.U_WEEK_IN_MICRO_SECONDS);
 
-        for (int index = 0; index < 255; ++index) {
+        for (int index = 0; index < MAX_CHECKPOINT_WEEKS; ++index) {
             timeIterator = timeIterator.add(TimeConstants.U_WEEK_IN_MICRO_SECONDS);
             BigInteger dSlope = BigInteger.ZERO;
-            if (timeIterator.compareTo(blockTimestamp) > 0) {
-                timeIterator = blockTimestamp;
+            if (timeIterator.compareTo(until) > 0) {
+                timeIterator = until;
             } else {
                 dSlope = this.slopeChanges.getOrDefault(timeIterator.toBigInteger(), BigInteger.ZERO);
             }
@@ -281,49 +399,26 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
             lastPoint.block = initialLastPoint.block.add(blockSlope.multiply(dtime).divide(MULTIPLIER));
             epoch = epoch.add(BigInteger.ONE);
 
-            if (timeIterator.equals(blockTimestamp)) {
-                lastPoint.block = blockHeight;
+            if (timeIterator.equals(until)) {
+                if (until.equals(blockTimestamp)) {
+                    lastPoint.block = blockHeight;
+                }
                 break;
             } else {
-                pointHistory.set(epoch, lastPoint);
-            }
-        }
-
-        this.epoch.set(epoch);
-        if (!address.equals(ZERO_ADDRESS)) {
-            lastPoint.slope = lastPoint.slope.add(uNew.slope.subtract(uOld.slope));
-            lastPoint.bias = lastPoint.bias.add(uNew.bias.subtract(uOld.bias));
-
-            if (lastPoint.slope.compareTo(BigInteger.ZERO) < 0) {
-                lastPoint.slope = BigInteger.ZERO;
-            }
-            if (lastPoint.bias.compareTo(BigInteger.ZERO) < 0) {
-                lastPoint.bias = BigInteger.ZERO;
+                setPointHistory(epoch, lastPoint);
             }
         }
 
-        this.pointHistory.set(epoch, lastPoint);
-
-        if (!address.equals(ZERO_ADDRESS)) {
-            if (oldLocked.end.compareTo(blockTimestamp) > 0) {
-                oldDSlope = oldDSlope.add(uOld.slope);
-                if (newLocked.end.equals(oldLocked.end)) {
-                    oldDSlope = oldDSlope.subtract(uNew.slope);
-                }
-                this.slopeChanges.set(oldLocked.getEnd(), oldDSlope);
-            }
-
-            if (newLocked.end.compareTo(blockTimestamp) > 0 && newLocked.end.compareTo(oldLocked.end) > 0) {
-                newDSlope = newDSlope.subtract(uNew.slope);
-                this.slopeChanges.set(newLocked.getEnd(), newDSlope);
-            }
+        return epoch;
+    }
 
-            BigInteger userEpoch = this.userPointEpoch.getOrDefault(address, BigInteger.ZERO).add(BigInteger.ONE);
-            this.userPointEpoch.set(address, userEpoch);
-            uNew.timestamp = blockTimestamp;
-            uNew.block = blockHeight;
-            this.userPointHistory.at(address).set(userEpoch, uNew);
-        }
+    /**
+     * number of week boundaries between the last global point and the given timestamp, each of them is written to
+     * point history by the next checkpoint
+     */
+    protected long pendingWeeks(Point lastPoint, UnsignedBigInteger timestamp) {
+        return timestamp.divide(TimeConstants.U_WEEK_IN_MICRO_SECONDS).longValue()
+                - lastPoint.timestamp.divide(TimeConstants.U_WEEK_IN_MICRO_SECONDS).longValue();
     }
 
     protected void depositFor(Address address, BigInteger value, BigInteger unlockTime, LockedBalance lockedBalance,
@@ -341,6 +436,7 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
         }
 
         this.locked.set(address, locked);
+        updateExpiryIndex(address, oldLocked.end, locked.end);
         if (value.compareTo(BigInteger.ZERO) > 0) {
             this.ommTokenBalance.set(this.ommTokenBalance.get().add(value));
         }
@@ -404,13 +500,41 @@ public abstract class AbstractBoostedOMM extends AddressProvider implements Boos
     }
 
     protected void onKick(Address user, BigInteger bOMMBalance, byte[] data) {
-        call(Contracts.DELEGATION, "onKick", user, bOMMBalance, data);
-        call(Contracts.REWARDS, "onKick", user, bOMMBalance, data);
+        BigInteger bOMMTotalSupply = totalSupply(BigInteger.ZERO);
+        call(Contracts.DELEGATION, "onKick", user, bOMMBalance, data, bOMMTotalSupply);
+        call(Contracts.REWARDS, "onKick", user, bOMMBalance, data, bOMMTotalSupply);
+    }
+
+    protected void onKickBatch(Address[] users, byte[] data) {
+        BigInteger bOMMTotalSupply = totalSupply(BigInteger.ZERO);
+        call(Contracts.DELEGATION, "onKickBatch", users, data);
+        call(Contracts.REWARDS, "onKickBatch", users, data, bOMMTotalSupply);
+    }
+
+    /**
+     * users whose lock ends at the given unlock time, unlock times are always rounded to a week
+     */
+    protected EnumerableSet<Address> expiringLocks(BigInteger unlockTime) {
+        return new EnumerableSet<>(EXPIRING_LOCKS + unlockTime, Address.class);
+    }
+
+    protected void updateExpiryIndex(Address user, UnsignedBigInteger oldEnd, UnsignedBigInteger newEnd) {
+        if (oldEnd.equals(newEnd)) {
+            return;
+        }
+        if (!oldEnd.equals(UnsignedBigInteger.ZERO)) {
+            expiringLocks(oldEnd.toBigInteger()).remove(user);
+        }
+        if (!newEnd.equals(UnsignedBigInteger.ZERO)) {
+            expiringLocks(newEnd.toBigInteger()).add(user);
+        }
     }
 
     protected void onBalanceUpdate(Address user) {
-        call(Contracts.DELEGATION, "onBalanceUpdate", user);
-        call(Contracts.REWARDS, "onBalanceUpdate", user);
+        BigInteger bOMMUserBalance = balanceOf(user, BigInteger.ZERO);
+        BigInteger bOMMTotalSupply = totalSupply(BigInteger.ZERO);
+        call(Contracts.DELEGATION, "onBalanceUpdate", user, bOMMUserBalance, bOMMTotalSupply);
+        call(Contracts.REWARDS, "onBalanceUpdate", user, bOMMUserBalance, bOMMTotalSupply);
     }
 
     public Object callToken(String method, Object... params) {
@@ -26,17 +26,21 @@ import finance.omm.score.tokens.exception.BoostedOMMException;
 import finance.omm.score.tokens.model.LockedBalance;
 import finance.omm.score.tokens.model.Point;
 import finance.omm.utils.constants.TimeConstants;
+import finance.omm.utils.db.EnumerableSet;
 import finance.omm.utils.math.UnsignedBigInteger;
 import java.math.BigInteger;
 import java.util.List;
 import java.util.Map;
 import score.Address;
 import score.Context;
+import score.DictDB;
 import score.annotation.External;
 import score.annotation.Optional;
+import scorex.util.HashMap;
 
 public class BoostedOMM extends AbstractBoostedOMM {
 
+    public static final int MAX_BATCH_SIZE = 500;
 
     public BoostedOMM(Address addressProvider, Address tokenAddress, String name, String symbol) {
         super(addressProvider, tokenAddress, name, symbol);
@@ -104,9 +108,52 @@ public class BoostedOMM extends AbstractBoostedOMM {
     }
 
 
+    /**
+     * advance global point history by at most as many week points as a lock operation may catch up, longer gaps are
+     * closed by repeated calls
+     */
     @External
     public void checkpoint() {
-        this.checkpoint(ZERO_ADDRESS, new LockedBalance(), new LockedBalance());
+        checkpointGlobal(MAX_USER_CATCH_UP_WEEKS);
+    }
+
+    /**
+     * advance global point history by at most maxWeeks week points, so that lock operations after a long period of
+     * inactivity only pay for a bounded catch up. the last written week point is the cursor of the next call
+     *
+     * @param maxWeeks - maximum number of week points to write
+     */
+    @External
+    public void checkpointGlobal(int maxWeeks) {
+        if (maxWeeks <= 0 || maxWeeks > MAX_CHECKPOINT_WEEKS) {
+            throw BoostedOMMException.unknown("maxWeeks should be between 1 and " + MAX_CHECKPOINT_WEEKS);
+        }
+        UnsignedBigInteger blockTimestamp = UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
+        BigInteger epoch = this.epoch.get();
+        Point lastPoint = this.pointHistory.getOrDefault(epoch, new Point());
+        long pendingWeeks = pendingWeeks(lastPoint, blockTimestamp);
+        if (pendingWeeks <= maxWeeks) {
+            this.checkpoint(ZERO_ADDRESS, new LockedBalance(), new LockedBalance());
+            if (pendingWeeks > 0) {
+                KeeperCheckpoint(Context.getCaller(), BigInteger.valueOf(pendingWeeks));
+            }
+            return;
+        }
+
+        UnsignedBigInteger until = lastPoint.timestamp.divide(TimeConstants.U_WEEK_IN_MICRO_SECONDS)
+                .add(UnsignedBigInteger.valueOf(maxWeeks))
+                .multiply(TimeConstants.U_WEEK_IN_MICRO_SECONDS);
+        epoch = fillPointHistory(lastPoint, epoch, until);
+        setPointHistory(epoch, lastPoint);
+        this.epoch.set(epoch);
+        KeeperCheckpoint(Context.getCaller(), BigInteger.valueOf(maxWeeks));
+    }
+
+    @External(readonly = true)
+    public BigInteger pendingCheckpointWeeks() {
+        UnsignedBigInteger blockTimestamp = UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
+        Point lastPoint = this.pointHistory.getOrDefault(this.epoch.get(), new Point());
+        return BigInteger.valueOf(pendingWeeks(lastPoint, blockTimestamp));
     }
 
     @External
@@ -176,10 +223,12 @@ public class BoostedOMM extends AbstractBoostedOMM {
         locked.end = UnsignedBigInteger.ZERO;
         locked.amount = BigInteger.ZERO;
         this.locked.set(sender, locked);
+        updateExpiryIndex(sender, oldLocked.end, locked.end);
         BigInteger supplyBefore = this.supply.get();
         this.supply.set(supplyBefore.subtract(value));
         this.ommTokenBalance.set(this.ommTokenBalance.get().subtract(value));
-        this.checkpoint(sender, oldLocked, locked);
+        // withdraw is never blocked on pending history, it pays for the whole catch up
+        this.checkpoint(sender, oldLocked, locked, MAX_CHECKPOINT_WEEKS);
         callToken("transfer", sender, value, "withdraw".getBytes());
         users.remove(sender);
         Withdraw(sender, value, blockTimestamp);
@@ -192,18 +241,62 @@ public class BoostedOMM extends AbstractBoostedOMM {
 
     @External(readonly = true)
     public BigInteger balanceOf(Address _owner, @Optional BigInteger timestamp) {
-        UnsignedBigInteger uTimestamp;
+        return balanceAt(_owner, toTimestamp(timestamp));
+    }
+
+    @External(readonly = true)
+    public Map<String, BigInteger> balancesOf(Address[] users, @Optional BigInteger timestamp) {
+        checkBatchSize(users);
+        UnsignedBigInteger uTimestamp = toTimestamp(timestamp);
+        Map<String, BigInteger> result = new HashMap<>();
+        for (Address user : users) {
+            result.put(user.toString(), balanceAt(user, uTimestamp));
+        }
+        return result;
+    }
+
+    @External(readonly = true)
+    public BigInteger balanceOfAt(Address _owner, BigInteger block) {
+        return balanceAtBlock(_owner, block, blockTimeAt(block));
+    }
+
+    /**
+     * balances of users at a block, the global epoch of the block and its timestamp are resolved once for all users
+     *
+     * @param users - voters
+     * @param block - block height, e.g. vote snapshot of a proposal
+     * @return map of user address and its balance at the block
+     */
+    @External(readonly = true)
+    public Map<String, BigInteger> balancesOfAt(Address[] users, BigInteger block) {
+        checkBatchSize(users);
+        UnsignedBigInteger blockTime = blockTimeAt(block);
+        Map<String, BigInteger> result = new HashMap<>();
+        for (Address user : users) {
+            result.put(user.toString(), balanceAtBlock(user, block, blockTime));
+        }
+        return result;
+    }
+
+    private void checkBatchSize(Address[] users) {
+        if (users.length > MAX_BATCH_SIZE) {
+            throw BoostedOMMException.unknown("users should not be more than " + MAX_BATCH_SIZE);
+        }
+    }
+
+    private UnsignedBigInteger toTimestamp(BigInteger timestamp) {
         if (timestamp == null || timestamp.equals(BigInteger.ZERO)) {
-            uTimestamp = UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
-        } else {
-            uTimestamp = new UnsignedBigInteger(timestamp);
+            return UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
         }
+        return new UnsignedBigInteger(timestamp);
+    }
 
-        BigInteger epoch = this.userPointEpoch.getOrDefault(_owner, BigInteger.ZERO);
+    private BigInteger balanceAt(Address user, UnsignedBigInteger uTimestamp) {
+        BigInteger epoch = this.userPointEpoch.getOrDefault(user, BigInteger.ZERO);
         if (epoch.equals(BigInteger.ZERO)) {
             return BigInteger.ZERO;
         } else {
-            Point lastPoint = getUserPointHistory(_owner, epoch);
+            Point lastPoint = getUserPointHistory(user, epoch);
             UnsignedBigInteger _delta = uTimestamp.subtract(lastPoint.timestamp);
             return lastPoint.bias
                     .subtract(lastPoint.slope.multiply(_delta.toBigInteger()))
@@ -211,15 +304,15 @@ public class BoostedOMM extends AbstractBoostedOMM {
         }
     }
 
-    @External(readonly = true)
-    public BigInteger balanceOfAt(Address _owner, BigInteger block) {
+    /**
+     * timestamp of a block, interpolated between the global points around it
+     */
+    private UnsignedBigInteger blockTimeAt(BigInteger block) {
         UnsignedBigInteger blockHeight = UnsignedBigInteger.valueOf(Context.getBlockHeight());
         UnsignedBigInteger blockTimestamp = UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
 
         Context.require(block.compareTo(blockHeight.toBigInteger()) <= 0,
                 "BalanceOfAt: Invalid given block height");
-        BigInteger userEpoch = this.findUserPointHistory(_owner, block);
-        Point uPoint = this.userPointHistory.at(_owner).getOrDefault(userEpoch, new Point());
 
         BigInteger maxEpoch = this.epoch.get();
         BigInteger epoch = this.findBlockEpoch(block, maxEpoch);
@@ -241,6 +334,12 @@ public class BoostedOMM extends AbstractBoostedOMM {
             blockTime = blockTime.add(dTime.multiply(new UnsignedBigInteger(block).subtract(point0.block))
                     .divide(dBlock));
         }
+        return blockTime;
+    }
+
+    private BigInteger balanceAtBlock(Address user, BigInteger block, UnsignedBigInteger blockTime) {
+        BigInteger userEpoch = this.findUserPointHistory(user, block);
+        Point uPoint = this.userPointHistory.at(user).getOrDefault(userEpoch, new Point());
         UnsignedBigInteger delta = blockTime.subtract(uPoint.timestamp);
         return uPoint.bias.subtract(uPoint.slope.multiply(delta.toBigInteger())).max(BigInteger.ZERO);
     }
@@ -285,6 +384,14 @@ public class BoostedOMM extends AbstractBoostedOMM {
         return this.supplyAt(point, point.timestamp.add(dTime).toBigInteger());
     }
 
+    @External(readonly = true)
+    public Map<String, BigInteger> getBalanceAndSupply(Address user) {
+        return Map.of(
+                "bOMMUserBalance", balanceOf(user, BigInteger.ZERO),
+                "bOMMTotalSupply", totalSupply(BigInteger.ZERO)
+        );
+    }
+
     @External(readonly = true)
     public SupplyDetails getPrincipalSupply(Address _user) {
         SupplyDetails response = new SupplyDetails();
@@ -301,9 +408,124 @@ public class BoostedOMM extends AbstractBoostedOMM {
         if (!bOMMBalance.equals(BigInteger.ZERO)) {
             throw BoostedOMMException.unknown("User's lock has not expired. (" + _user + ")");
         }
+        LockedBalance locked = getLockedBalance(_user);
+        if (!locked.end.equals(UnsignedBigInteger.ZERO)) {
+            expiringLocks(locked.getEnd()).remove(_user);
+        }
         onKick(_user, bOMMBalance, "User kicked".getBytes());
     }
 
+    /**
+     * kick users whose lock ended at the given unlock time, kicked users are removed from the index and forwarded to
+     * delegation and rewards contracts in a single call
+     *
+     * @param week     - unlock time of the locks in microseconds
+     * @param maxCount - maximum number of users to kick
+     */
+    @External
+    public void kickExpired(BigInteger week, int maxCount) {
+        if (maxCount <= 0 || maxCount > MAX_BATCH_SIZE) {
+            throw BoostedOMMException.unknown("maxCount should be between 1 and " + MAX_BATCH_SIZE);
+        }
+        Context.require(week.compareTo(BigInteger.valueOf(Context.getBlockTimestamp())) <= 0,
+                "Kick expired: Locks have not expired");
+
+        EnumerableSet<Address> expired = expiringLocks(week);
+        int count = Math.min(maxCount, expired.length());
+        if (count == 0) {
+            return;
+        }
+        Address[] kicked = new Address[count];
+        for (int i = 0; i < count; i++) {
+            Address user = expired.at(expired.length() - 1);
+            expired.remove(user);
+            kicked[i] = user;
+        }
+        onKickBatch(kicked, "User kicked".getBytes());
+    }
+
+    @External(readonly = true)
+    public List<Address> getExpiringUsers(BigInteger week, int start, int end) {
+        Context.require(end - start <= MAX_BATCH_SIZE, "Get expiring users: Range too large");
+        return expiringLocks(week).range(start, end);
+    }
+
+    /**
+     * add locks created before the expiry index existed, users are indexed by their current lock end. locks already
+     * ended are not indexed
+     *
+     * @param start - start index of users list
+     * @param end   - end index of users list
+     */
+    @External
+    public void indexLockExpiries(int start, int end) {
+        if (!Context.getOwner().equals(Context.getCaller())) {
+            throw BoostedOMMException.unauthorized("Only owner is allowed to call indexLockExpiries method");
+        }
+        Context.require(end - start <= MAX_BATCH_SIZE, "Index lock expiries: Range too large");
+        UnsignedBigInteger blockTimestamp = UnsignedBigInteger.valueOf(Context.getBlockTimestamp());
+        for (Address user : users.range(start, end)) {
+            LockedBalance locked = getLockedBalance(user);
+            if (locked.amount.signum() > 0 && locked.end.compareTo(blockTimestamp) > 0) {
+                updateExpiryIndex(user, UnsignedBigInteger.ZERO, locked.end);
+            }
+        }
+    }
+
+    /**
+     * add blocks of global points written before the block index existed, once all epochs are indexed bisection no
+     * longer reads whole points
+     *
+     * @param start - first epoch to index
+     * @param end   - epoch after the last one to index
+     */
+    @External
+    public void indexPointBlocks(BigInteger start, BigInteger end) {
+        if (!Context.getOwner().equals(Context.getCaller())) {
+            throw BoostedOMMException.unauthorized("Only owner is allowed to call indexPointBlocks method");
+        }
+        Context.require(end.subtract(start).compareTo(BigInteger.valueOf(MAX_BATCH_SIZE)) <= 0,
+                "Index point blocks: Range too large");
+        long from = start.longValue();
+        long to = end.min(this.epoch.get().add(BigInteger.ONE)).longValue();
+        for (long epoch = from; epoch < to; epoch++) {
+            if (this.pointBlock.get(epoch) == null) {
+                Point point = this.pointHistory.get(BigInteger.valueOf(epoch));
+                if (point != null) {
+                    this.pointBlock.set(epoch, point.block.longValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * add blocks of user points written before the block index existed
+     *
+     * @param user  - lock owner
+     * @param start - first user epoch to index
+     * @param end   - user epoch after the last one to index
+     */
+    @External
+    public void indexUserPointBlocks(Address user, BigInteger start, BigInteger end) {
+        if (!Context.getOwner().equals(Context.getCaller())) {
+            throw BoostedOMMException.unauthorized("Only owner is allowed to call indexUserPointBlocks method");
+        }
+        Context.require(end.subtract(start).compareTo(BigInteger.valueOf(MAX_BATCH_SIZE)) <= 0,
+                "Index user point blocks: Range too large");
+        long from = start.longValue();
+        long to = end.min(this.userPointEpoch.getOrDefault(user, BigInteger.ZERO).add(BigInteger.ONE)).longValue();
+        DictDB<Long, Long> blocks = this.userPointBlock.at(user);
+        DictDB<BigInteger, Point> points = this.userPointHistory.at(user);
+        for (long epoch = from; epoch < to; epoch++) {
+            if (blocks.get(epoch) == null) {
+                Point point = points.get(BigInteger.valueOf(epoch));
+                if (point != null) {
+                    blocks.set(epoch, point.block.longValue());
+                }
+            }
+        }
+    }
+
 
     @External(readonly = true)
     public BigInteger userPointEpoch(Address _owner) {
@@ -18,6 +18,7 @@
 package finance.omm.score.tokens.model;
 
 
+import finance.omm.utils.constants.TimeConstants;
 import finance.omm.utils.math.UnsignedBigInteger;
 import java.math.BigInteger;
 import score.ByteArrayObjectWriter;
@@ -27,6 +28,9 @@ import score.ObjectWriter;
 
 public class LockedBalance {
 
+    private static final int END_IN_WEEKS = 1;
+    private static final long WEEK = TimeConstants.WEEK_IN_MICRO_SECONDS.longValue();
+
     public BigInteger amount;
     public UnsignedBigInteger end;
 
@@ -58,16 +62,36 @@ public class LockedBalance {
     public static LockedBalance readObject(ObjectReader reader) {
         LockedBalance obj = new LockedBalance();
         reader.beginList();
-        obj.amount = reader.readBigInteger();
-        obj.end = new UnsignedBigInteger(reader.readBigInteger());
+        BigInteger first = reader.readBigInteger();
+        BigInteger second = reader.readBigInteger();
+        if (!reader.hasNext()) {
+            obj.amount = first;
+            obj.end = new UnsignedBigInteger(second);
+        } else {
+            obj.amount = second;
+            obj.end = UnsignedBigInteger.valueOf(reader.readLong() * WEEK);
+        }
         reader.end();
         return obj;
     }
 
+    /**
+     * lock end is always at start of a week, it is written as number of weeks after a version entry. released locks
+     * and other values are written in the legacy list of amount and end
+     */
     public void writeObject(ObjectWriter writer) {
-        writer.beginList(2);
+        long end = this.end.longValue();
+        if (end == 0 || end % WEEK != 0) {
+            writer.beginList(2);
+            writer.write(this.amount);
+            writer.write(this.end.toBigInteger());
+            writer.end();
+            return;
+        }
+        writer.beginList(3);
+        writer.write(END_IN_WEEKS);
         writer.write(this.amount);
-        writer.write(this.end.toBigInteger());
+        writer.write(end / WEEK);
         writer.end();
     }
 
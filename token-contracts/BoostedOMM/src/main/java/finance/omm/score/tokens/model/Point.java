@@ -18,6 +18,7 @@
 
 package finance.omm.score.tokens.model;
 
+import finance.omm.utils.constants.TimeConstants;
 import finance.omm.utils.math.UnsignedBigInteger;
 import java.math.BigInteger;
 import score.ByteArrayObjectWriter;
@@ -27,6 +28,10 @@ import score.ObjectWriter;
 
 public class Point {
 
+    private static final int BIAS_IN_SLOPE = 1;
+    private static final int TIMESTAMP_IN_WEEKS = 2;
+    private static final long WEEK = TimeConstants.WEEK_IN_MICRO_SECONDS.longValue();
+
     public BigInteger bias;
     public BigInteger slope;
     public UnsignedBigInteger timestamp;
@@ -63,20 +68,66 @@ public class Point {
     public static Point readObject(ObjectReader reader) {
         Point obj = new Point();
         reader.beginList();
-        obj.bias = reader.readBigInteger();
-        obj.slope = reader.readBigInteger();
-        obj.timestamp = new UnsignedBigInteger(reader.readBigInteger());
-        obj.block = new UnsignedBigInteger(reader.readBigInteger());
+        BigInteger first = reader.readBigInteger();
+        BigInteger second = reader.readBigInteger();
+        BigInteger third = reader.readBigInteger();
+        BigInteger fourth = reader.readBigInteger();
+        if (!reader.hasNext()) {
+            obj.bias = first;
+            obj.slope = second;
+            obj.timestamp = new UnsignedBigInteger(third);
+            obj.block = new UnsignedBigInteger(fourth);
+        } else {
+            int flags = first.intValue();
+            obj.slope = third;
+            obj.bias = (flags & BIAS_IN_SLOPE) != 0 ? second.multiply(third) : second;
+            long timestamp = fourth.longValue();
+            if ((flags & TIMESTAMP_IN_WEEKS) != 0) {
+                timestamp *= WEEK;
+            }
+            obj.timestamp = UnsignedBigInteger.valueOf(timestamp);
+            obj.block = UnsignedBigInteger.valueOf(reader.readLong());
+        }
         reader.end();
         return obj;
     }
 
+    /**
+     * points are written as a list of flags, bias, slope, timestamp and block when bias is a multiple of slope (as in
+     * user points) or timestamp is at start of a week. bias is then stored as multiple of slope and timestamp
+     * as number of weeks, other points are written in the legacy list of bias, slope, timestamp and block
+     */
     public void writeObject(ObjectWriter writer) {
-        writer.beginList(4);
-        writer.write(this.bias);
+        int flags = 0;
+        BigInteger bias = this.bias;
+        if (this.slope.signum() > 0 && this.bias.signum() > 0) {
+            BigInteger[] quotientAndRemainder = this.bias.divideAndRemainder(this.slope);
+            if (quotientAndRemainder[1].signum() == 0) {
+                flags |= BIAS_IN_SLOPE;
+                bias = quotientAndRemainder[0];
+            }
+        }
+        long timestamp = this.timestamp.longValue();
+        if (timestamp % WEEK == 0) {
+            flags |= TIMESTAMP_IN_WEEKS;
+            timestamp /= WEEK;
+        }
+
+        if (flags == 0) {
+            writer.beginList(4);
+            writer.write(this.bias);
+            writer.write(this.slope);
+            writer.write(this.timestamp.toBigInteger());
+            writer.write(this.block.toBigInteger());
+            writer.end();
+            return;
+        }
+        writer.beginList(5);
+        writer.write(flags);
+        writer.write(bias);
         writer.write(this.slope);
-        writer.write(this.timestamp.toBigInteger());
-        writer.write(this.block.toBigInteger());
+        writer.write(timestamp);
+        writer.write(this.block.longValue());
         writer.end();
     }
 
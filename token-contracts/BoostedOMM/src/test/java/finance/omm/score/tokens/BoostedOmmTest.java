@@ -20,14 +20,20 @@
 package finance.omm.score.tokens;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.iconloop.score.test.Account;
 import com.iconloop.score.test.Score;
 import com.iconloop.score.test.ServiceManager;
 import finance.omm.libs.address.Contracts;
+import finance.omm.score.tokens.model.LockedBalance;
+import finance.omm.score.tokens.model.Point;
+import finance.omm.utils.constants.TimeConstants;
 import java.math.BigInteger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import score.ByteArrayObjectWriter;
+import score.Context;
 
 class BoostedOmmTest extends AbstractBOMMTest {
 
@@ -72,4 +78,55 @@ class BoostedOmmTest extends AbstractBOMMTest {
         assertEquals(BigInteger.ZERO, veOmmScore.call("totalSupply", BigInteger.ZERO));
     }
 
+    @Test
+    void pointEncoding() {
+        BigInteger week = TimeConstants.WEEK_IN_MICRO_SECONDS;
+        BigInteger slope = BigInteger.valueOf(7_936_507_936L);
+        Point userPoint = new Point(slope.multiply(week.multiply(BigInteger.TEN)), slope,
+                BigInteger.valueOf(1_650_000_000_123_456L), BigInteger.valueOf(52_000_000L));
+        Point weekPoint = new Point(BigInteger.valueOf(123_456_789L), BigInteger.valueOf(1000L),
+                week.multiply(BigInteger.valueOf(2729L)), BigInteger.valueOf(52_000_001L));
+
+        for (Point point : new Point[]{userPoint, weekPoint}) {
+            byte[] bytes = point.toBytes();
+            assertTrue(bytes.length < legacyPoint(point).length);
+            assertPointEquals(point, Point.fromBytes(bytes));
+            assertPointEquals(point, Point.fromBytes(legacyPoint(point)));
+        }
+
+        LockedBalance locked = new LockedBalance(ICX.multiply(BigInteger.TEN),
+                week.multiply(BigInteger.valueOf(2800L)));
+        ByteArrayObjectWriter writer = Context.newByteArrayObjectWriter("RLPn");
+        writer.beginList(2);
+        writer.write(locked.amount);
+        writer.write(locked.getEnd());
+        writer.end();
+        byte[] legacy = writer.toByteArray();
+
+        assertTrue(locked.toBytes().length < legacy.length);
+        for (LockedBalance decoded : new LockedBalance[]{LockedBalance.fromBytes(locked.toBytes()),
+                LockedBalance.fromBytes(legacy)}) {
+            assertEquals(locked.amount, decoded.amount);
+            assertEquals(locked.getEnd(), decoded.getEnd());
+        }
+    }
+
+    private static byte[] legacyPoint(Point point) {
+        ByteArrayObjectWriter writer = Context.newByteArrayObjectWriter("RLPn");
+        writer.beginList(4);
+        writer.write(point.bias);
+        writer.write(point.slope);
+        writer.write(point.getTimestamp());
+        writer.write(point.getBlock());
+        writer.end();
+        return writer.toByteArray();
+    }
+
+    private static void assertPointEquals(Point expected, Point actual) {
+        assertEquals(expected.bias, actual.bias);
+        assertEquals(expected.slope, actual.slope);
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getBlock(), actual.getBlock());
+    }
+
 }
@@ -1,9 +1,14 @@
 package finance.omm.score.tokens;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import com.iconloop.score.test.Account;
 import com.iconloop.score.test.Score;
@@ -23,6 +28,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatchers;
+import score.Address;
+import score.DictDB;
 
 /*
  * Test voting power in the following scenario.
@@ -422,6 +429,303 @@ public class VotingPowerTest extends AbstractBOMMTest {
         }
     }
 
+    @Test
+    @DisplayName("Test checkpoint bounds slope change reads of total supply")
+    public void testCheckpointSupplyReads() throws Exception {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.valueOf(5L)).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+
+        Field field = AbstractBoostedOMM.class.getDeclaredField("slopeChanges");
+        field.setAccessible(true);
+        DictDB<BigInteger, BigInteger> slopeChanges = spy((DictDB<BigInteger, BigInteger>) field.get(scoreSpy));
+        field.set(scoreSpy, slopeChanges);
+
+        addBlockHeight(WEEK.multiply(BigInteger.valueOf(3L)));
+        BigInteger aliceBalance = (BigInteger) bBALNScore.call("balanceOf", alice.getAddress(), BigInteger.ZERO);
+        BigInteger totalSupply = (BigInteger) bBALNScore.call("totalSupply", BigInteger.ZERO);
+        assertEquals(aliceBalance, totalSupply);
+        verify(slopeChanges, times(3)).getOrDefault(any(), any());
+
+        bBALNScore.invoke(bob, "checkpoint");
+        verify(scoreSpy).KeeperCheckpoint(bob.getAddress(), BigInteger.valueOf(3L));
+
+        // nothing pending until the next week boundary
+        addBlockHeight(HOUR);
+        bBALNScore.invoke(alice, "checkpoint");
+        verify(scoreSpy, never()).KeeperCheckpoint(eq(alice.getAddress()), any());
+
+        clearInvocations(slopeChanges);
+        addBlockHeight(DAY);
+        totalSupply = (BigInteger) bBALNScore.call("totalSupply", BigInteger.ZERO);
+        assertEquals(bBALNScore.call("balanceOf", alice.getAddress(), BigInteger.ZERO), totalSupply);
+        verify(slopeChanges, never()).getOrDefault(any(), any());
+    }
+
+    @Test
+    @DisplayName("Test historical balance of points without block index")
+    public void testBalanceOfAtWithoutBlockIndex() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.valueOf(3L)).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+        addBlockHeight(DAY);
+        State state = getState();
+        addBlockHeight(WEEK);
+        createLock(bob, lockUntil, amount);
+        addBlockHeight(DAY);
+
+        BigInteger block = BigInteger.valueOf(state.block);
+        BigInteger aliceBalance = (BigInteger) bBALNScore.call("balanceOfAt", alice.getAddress(), block);
+        BigInteger totalSupply = (BigInteger) bBALNScore.call("totalSupplyAt", block);
+
+        // points written before the block index existed
+        long epoch = scoreSpy.epoch.get().longValue();
+        for (long i = 0; i <= epoch; i++) {
+            scoreSpy.pointBlock.set(i, null);
+        }
+        scoreSpy.userPointBlock.at(alice.getAddress()).set(1L, null);
+
+        assertEquals(aliceBalance, bBALNScore.call("balanceOfAt", alice.getAddress(), block));
+        assertEquals(totalSupply, bBALNScore.call("totalSupplyAt", block));
+        assertEquals(aliceBalance, totalSupply);
+    }
+
+    @Test
+    @DisplayName("Test index point blocks of points written before the block index")
+    public void testIndexPointBlocks() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.valueOf(3L)).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+        addBlockHeight(WEEK);
+        createLock(bob, lockUntil, amount);
+
+        long epoch = scoreSpy.epoch.get().longValue();
+        Map<Long, Long> blocks = new HashMap<>();
+        for (long i = 0; i <= epoch; i++) {
+            blocks.put(i, scoreSpy.pointBlock.get(i));
+            scoreSpy.pointBlock.set(i, null);
+        }
+        Long aliceBlock = scoreSpy.userPointBlock.at(alice.getAddress()).get(1L);
+        scoreSpy.userPointBlock.at(alice.getAddress()).set(1L, null);
+
+        AssertionError e = Assertions.assertThrows(AssertionError.class,
+                () -> bBALNScore.invoke(bob, "indexPointBlocks", BigInteger.ZERO, BigInteger.TEN));
+        assertEquals("Only owner is allowed to call indexPointBlocks method", e.getMessage());
+        e = Assertions.assertThrows(AssertionError.class,
+                () -> bBALNScore.invoke(owner, "indexPointBlocks", BigInteger.ZERO, BigInteger.valueOf(501L)));
+        assertEquals("Index point blocks: Range too large", e.getMessage());
+
+        // end past the last epoch is clamped
+        bBALNScore.invoke(owner, "indexPointBlocks", BigInteger.ONE, BigInteger.valueOf(100L));
+        assertEquals(null, scoreSpy.pointBlock.get(0L));
+        bBALNScore.invoke(owner, "indexPointBlocks", BigInteger.ZERO, BigInteger.ONE);
+        for (long i = 0; i <= epoch; i++) {
+            assertEquals(blocks.get(i), scoreSpy.pointBlock.get(i));
+        }
+
+        bBALNScore.invoke(owner, "indexUserPointBlocks", alice.getAddress(), BigInteger.ZERO, BigInteger.TEN);
+        assertEquals(aliceBlock, scoreSpy.userPointBlock.at(alice.getAddress()).get(1L));
+    }
+
+    @Test
+    @DisplayName("Test batch balances match single balance queries")
+    public void testBalancesOfAt() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.valueOf(3L)).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+        addBlockHeight(DAY);
+        State state = getState();
+        addBlockHeight(DAY);
+        createLock(bob, lockUntil, amount.multiply(BigInteger.TWO));
+        addBlockHeight(DAY);
+
+        Account carol = sm.createAccount();
+        Address[] users = new Address[]{alice.getAddress(), bob.getAddress(), carol.getAddress()};
+        BigInteger block = BigInteger.valueOf(state.block);
+
+        Map<String, BigInteger> balances = (Map<String, BigInteger>) bBALNScore.call("balancesOfAt", users, block);
+        Map<String, BigInteger> currentBalances = (Map<String, BigInteger>) bBALNScore.call("balancesOf", users,
+                BigInteger.ZERO);
+        for (Address user : users) {
+            assertEquals(bBALNScore.call("balanceOfAt", user, block), balances.get(user.toString()));
+            assertEquals(bBALNScore.call("balanceOf", user, BigInteger.ZERO), currentBalances.get(user.toString()));
+        }
+        assertEquals(BigInteger.ZERO, balances.get(bob.getAddress().toString()));
+        assertEquals(BigInteger.ZERO, currentBalances.get(carol.getAddress().toString()));
+    }
+
+    @Test
+    @DisplayName("Test kick users of expired week in batch")
+    public void testKickExpired() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.TWO).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+        createLock(bob, lockUntil, amount);
+
+        List<Address> expiring = (List<Address>) bBALNScore.call("getExpiringUsers", lockUntil, 0, 10);
+        assertEquals(2, expiring.size());
+
+        AssertionError e = Assertions.assertThrows(AssertionError.class,
+                () -> bBALNScore.invoke(bob, "kickExpired", lockUntil, 10));
+        assertEquals("Kick expired: Locks have not expired", e.getMessage());
+
+        addBlockHeight(WEEK.multiply(BigInteger.valueOf(3L)));
+        VarargAnyMatcher<Object> matcher = new VarargAnyMatcher<>();
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.DELEGATION), eq("onKickBatch"), ArgumentMatchers.<Object>argThat(matcher));
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.REWARDS), eq("onKickBatch"), ArgumentMatchers.<Object>argThat(matcher));
+
+        bBALNScore.invoke(bob, "kickExpired", lockUntil, 1);
+        expiring = (List<Address>) bBALNScore.call("getExpiringUsers", lockUntil, 0, 10);
+        assertEquals(1, expiring.size());
+
+        bBALNScore.invoke(bob, "kickExpired", lockUntil, 10);
+        expiring = (List<Address>) bBALNScore.call("getExpiringUsers", lockUntil, 0, 10);
+        assertEquals(0, expiring.size());
+        verify(scoreSpy, times(2)).call(eq(Contracts.REWARDS), eq("onKickBatch"),
+                ArgumentMatchers.<Object>argThat(matcher));
+    }
+
+    @Test
+    @DisplayName("Test kick removes user from expiry index")
+    public void testKickRemovesExpiry() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.TWO).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+        createLock(bob, lockUntil, amount);
+
+        addBlockHeight(WEEK.multiply(BigInteger.valueOf(3L)));
+        VarargAnyMatcher<Object> matcher = new VarargAnyMatcher<>();
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.DELEGATION), eq("onKick"), ArgumentMatchers.<Object>argThat(matcher));
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.REWARDS), eq("onKick"), ArgumentMatchers.<Object>argThat(matcher));
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.DELEGATION), eq("onKickBatch"), ArgumentMatchers.<Object>argThat(matcher));
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.REWARDS), eq("onKickBatch"), ArgumentMatchers.<Object>argThat(matcher));
+
+        bBALNScore.invoke(bob, "kick", alice.getAddress());
+        assertEquals(List.of(bob.getAddress()), bBALNScore.call("getExpiringUsers", lockUntil, 0, 10));
+
+        // alice is not kicked twice
+        bBALNScore.invoke(bob, "kickExpired", lockUntil, 10);
+        verify(scoreSpy).call(Contracts.DELEGATION, "onKickBatch", new Address[]{bob.getAddress()},
+                "User kicked".getBytes());
+    }
+
+    @Test
+    @DisplayName("Test index lock expiries of locks created before the index")
+    public void testIndexLockExpiries() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger aliceUntil = timestamp.divide(WEEK).add(BigInteger.TWO).multiply(WEEK);
+        BigInteger bobUntil = timestamp.divide(WEEK).add(BigInteger.TEN).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, aliceUntil, amount);
+        createLock(bob, bobUntil, amount);
+
+        AssertionError e = Assertions.assertThrows(AssertionError.class,
+                () -> bBALNScore.invoke(bob, "indexLockExpiries", 0, 10));
+        assertEquals("Only owner is allowed to call indexLockExpiries method", e.getMessage());
+
+        addBlockHeight(WEEK.multiply(BigInteger.valueOf(3L)));
+        VarargAnyMatcher<Object> matcher = new VarargAnyMatcher<>();
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.DELEGATION), eq("onKickBatch"), ArgumentMatchers.<Object>argThat(matcher));
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.REWARDS), eq("onKickBatch"), ArgumentMatchers.<Object>argThat(matcher));
+        bBALNScore.invoke(bob, "kickExpired", aliceUntil, 10);
+
+        // ended lock of alice is still held but not indexed again
+        bBALNScore.invoke(owner, "indexLockExpiries", 0, 10);
+
+        assertEquals(List.of(), bBALNScore.call("getExpiringUsers", aliceUntil, 0, 10));
+        assertEquals(List.of(bob.getAddress()), bBALNScore.call("getExpiringUsers", bobUntil, 0, 10));
+    }
+
+    @Test
+    @DisplayName("Test lock operations after inactivity require global checkpoint")
+    public void testCheckpointGlobal() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.valueOf(52L)).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+        addBlockHeight(WEEK.multiply(BigInteger.valueOf(20L)));
+
+        assertEquals(BigInteger.valueOf(20L), bBALNScore.call("pendingCheckpointWeeks"));
+        // failed transaction is not rolled back by the service manager, use separate account and release lock
+        Account carol = sm.createAccount();
+        tokenScore.invoke(owner, "mintTo", carol.getAddress(), amount);
+        AssertionError e = Assertions.assertThrows(AssertionError.class, () -> createLock(carol, lockUntil, amount));
+        assertEquals("Checkpoint: 20 weeks of history pending, call checkpointGlobal first", e.getMessage());
+        scoreSpy.nonReentrant.updateLock(false);
+
+        BigInteger epoch = scoreSpy.epoch.get();
+        bBALNScore.invoke(bob, "checkpointGlobal", 15);
+        assertEquals(epoch.add(BigInteger.valueOf(15L)), scoreSpy.epoch.get());
+        assertEquals(BigInteger.valueOf(5L), bBALNScore.call("pendingCheckpointWeeks"));
+
+        createLock(bob, lockUntil, amount);
+        assertEquals(BigInteger.ZERO, bBALNScore.call("pendingCheckpointWeeks"));
+
+        BigInteger aliceBalance = (BigInteger) bBALNScore.call("balanceOf", alice.getAddress(), BigInteger.ZERO);
+        BigInteger bobBalance = (BigInteger) bBALNScore.call("balanceOf", bob.getAddress(), BigInteger.ZERO);
+        assertEquals(aliceBalance.add(bobBalance), bBALNScore.call("totalSupply", BigInteger.ZERO));
+    }
+
+    @Test
+    @DisplayName("Test checkpoint is bounded and withdraw is not blocked after inactivity")
+    public void testCheckpointAfterInactivity() {
+        BigInteger timestamp = getBlockTimestamp();
+        BigInteger lockUntil = timestamp.divide(WEEK).add(BigInteger.TWO).multiply(WEEK);
+        BigInteger amount = ICX.multiply(BigInteger.valueOf(50));
+
+        addBlockHeight(HOUR);
+        createLock(alice, lockUntil, amount);
+        createLock(bob, lockUntil, amount);
+        addBlockHeight(WEEK.multiply(BigInteger.valueOf(20L)));
+        assertEquals(BigInteger.valueOf(20L), bBALNScore.call("pendingCheckpointWeeks"));
+
+        BigInteger epoch = scoreSpy.epoch.get();
+        bBALNScore.invoke(bob, "checkpoint");
+        verify(scoreSpy).KeeperCheckpoint(bob.getAddress(), BigInteger.valueOf(8L));
+        assertEquals(epoch.add(BigInteger.valueOf(8L)), scoreSpy.epoch.get());
+        assertEquals(BigInteger.valueOf(12L), bBALNScore.call("pendingCheckpointWeeks"));
+
+        VarargAnyMatcher<Object> matcher = new VarargAnyMatcher<>();
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.DELEGATION), eq("onKick"), ArgumentMatchers.<Object>argThat(matcher));
+        doNothing().when(scoreSpy)
+                .call(eq(Contracts.REWARDS), eq("onKick"), ArgumentMatchers.<Object>argThat(matcher));
+        bBALNScore.invoke(alice, "withdraw");
+        assertEquals(BigInteger.ZERO, bBALNScore.call("pendingCheckpointWeeks"));
+        assertEquals(amount, bBALNScore.call("getTotalLocked"));
+        assertEquals(BigInteger.ZERO, bBALNScore.call("totalSupply", BigInteger.ZERO));
+    }
+
     private void createLock(Account account, BigInteger lockUntil, BigInteger amount) {
         VarargAnyMatcher<Object> matcher = new VarargAnyMatcher<>();
         doNothing().when(scoreSpy)